@@ -0,0 +1,66 @@
+package factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reseau.Reseau;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks du chargement d'un réseau : analyse du format texte et lecture du
+ * format binaire, sur des instances de {@link GenerateurInstances}.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyseBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int nbMaisons;
+
+    private File texte;
+    private File binaire;
+
+    @Setup
+    public void preparer() throws IOException {
+        GenerateurInstances generateur = new GenerateurInstances(Math.max(3, nbMaisons / 50), nbMaisons, 1);
+        texte = File.createTempFile("benchmark", ".txt");
+        binaire = File.createTempFile("benchmark", ".bin");
+        generateur.ecrireTexte(texte.getAbsolutePath());
+        generateur.ecrireBinaire(binaire.getAbsolutePath());
+    }
+
+    @TearDown
+    public void nettoyer() {
+        texte.delete();
+        binaire.delete();
+    }
+
+    @Benchmark
+    public Reseau parserReseau() throws IOException {
+        return ReseauFactory.parserReseau(10, texte.getAbsolutePath());
+    }
+
+    @Benchmark
+    public Reseau parserReseauBinaire() throws IOException {
+        return ReseauFactory.parserReseauBinaire(10, binaire.getAbsolutePath());
+    }
+}
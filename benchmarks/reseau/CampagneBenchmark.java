@@ -0,0 +1,239 @@
+package reseau;
+
+import factory.GenerateurInstances;
+import factory.ReseauFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Campagne de résolution : qualité des solutions en fonction du temps, sur le corpus
+ * d'instances.
+ * <p>
+ * Chaque instance de {@code tests/resources/instanceCoutOptimal.csv} (et chaque instance
+ * générée demandée) est résolue {@code repetitions} fois, avec des graines différentes,
+ * en parallèle sur {@code fils} fils. Deux séries de résolutions sont menées :
+ * <ol>
+ * <li>résolutions complètes : distribution du coût final et de la durée ;</li>
+ * <li>résolutions arrêtées dès que le coût atteint la cible {@code référence × (1 + tolérance)} :
+ * distribution du temps pour atteindre la cible. L'arrêt anticipé de {@link Optimiseur}
+ * (borne inférieure + écart toléré) est réglé sur cette cible ; une résolution qui se
+ * termine sans l'atteindre compte pour un temps infini.</li>
+ * </ol>
+ * La référence est le coût optimal du fichier CSV (donné au centième : la cible est élargie
+ * d'un demi-centième), ou, pour une instance générée, le meilleur coût final de la première
+ * série. Le résultat est un CSV, une ligne par instance, avec les percentiles p50, p90 et p95.
+ * <p>
+ * Arguments, sous la forme {@code cle=valeur} : {@code repetitions} (30), {@code fils}
+ * (nombre de cœurs), {@code tolerance} (0.01), {@code generees} (tailles d'instances
+ * générées, par ex. {@code 1000,10000} ; aucune par défaut), {@code sortie} (fichier CSV ;
+ * sortie standard par défaut).
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public final class CampagneBenchmark {
+
+    private static final String RESSOURCES = "./tests/resources/";
+
+    /** Les coûts de référence du CSV sont arrondis au centième */
+    private static final double PRECISION_REFERENCE = 0.005;
+
+    private static final double PENALITE = 10;
+
+    private static final double[] PERCENTILES = {50, 90, 95};
+
+    private CampagneBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int repetitions = 30;
+        int fils = Runtime.getRuntime().availableProcessors();
+        double tolerance = 0.01;
+        String generees = "";
+        String sortie = null;
+        for (String arg : args) {
+            int egal = arg.indexOf('=');
+            if (egal < 0) throw new IllegalArgumentException("Argument attendu sous la forme cle=valeur : " + arg);
+            String valeur = arg.substring(egal + 1);
+            switch (arg.substring(0, egal)) {
+                case "repetitions": repetitions = Integer.parseInt(valeur); break;
+                case "fils": fils = Integer.parseInt(valeur); break;
+                case "tolerance": tolerance = Double.parseDouble(valeur); break;
+                case "generees": generees = valeur; break;
+                case "sortie": sortie = valeur; break;
+                default: throw new IllegalArgumentException("Argument inconnu : " + arg);
+            }
+        }
+
+        List<Instance> instances = lireCorpus();
+        List<File> temporaires = new ArrayList<>();
+        for (String taille : generees.split(",")) {
+            if (taille.isBlank()) continue;
+            int nbMaisons = Integer.parseInt(taille.trim());
+            File fichier = File.createTempFile("campagne", ".txt");
+            temporaires.add(fichier);
+            new GenerateurInstances(Instances.nbGenerateurs(nbMaisons), nbMaisons, 1).ecrireTexte(fichier.getAbsolutePath());
+            instances.add(new Instance("genere" + nbMaisons, fichier.getAbsolutePath(), Double.NaN));
+        }
+
+        ExecutorService executeur = Executors.newFixedThreadPool(fils);
+        try (PrintStream out = sortie == null ? System.out : new PrintStream(sortie)) {
+            out.println("instance,maisons,generateurs,reference,cible,executions,atteintes,"
+                    + colonnes("cout") + "," + colonnes("duree_ms") + "," + colonnes("temps_cible_ms"));
+            for (Instance instance : instances) {
+                mesurer(instance, repetitions, tolerance, executeur, out);
+            }
+        } finally {
+            executeur.shutdownNow();
+            for (File f : temporaires) f.delete();
+        }
+    }
+
+    /**
+     * Mène les deux séries de résolutions d'une instance et écrit sa ligne de CSV.
+     */
+    private static void mesurer(Instance instance, int repetitions, double tolerance,
+                                ExecutorService executeur, PrintStream out) throws Exception {
+        Reseau modele = ReseauFactory.parserReseau(PENALITE, instance.fichier);
+        double borne = BorneInferieure.calculer(NoyauReseau.depuis(modele));
+
+        // 1) résolutions complètes
+        ParametresOptimisation parametres = new ParametresOptimisation();
+        parametres.setVerbeux(false);
+        double[][] completes = executer(instance, repetitions, parametres, executeur);
+        double[] couts = new double[repetitions];
+        double[] durees = new double[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            couts[i] = completes[i][0];
+            durees[i] = completes[i][1];
+        }
+
+        double reference;
+        double cible;
+        if (Double.isNaN(instance.coutOptimal)) {
+            reference = Arrays.stream(couts).min().orElse(Double.NaN);
+            cible = reference * (1 + tolerance);
+        } else {
+            reference = instance.coutOptimal;
+            cible = reference * (1 + tolerance) + PRECISION_REFERENCE;
+        }
+
+        // 2) résolutions arrêtées à la cible
+        ParametresOptimisation versCible = new ParametresOptimisation(parametres);
+        versCible.setEcartTolere(Math.max(0, cible - borne));
+        double[][] arretees = executer(instance, repetitions, versCible, executeur);
+        double[] tempsCible = new double[repetitions];
+        int atteintes = 0;
+        for (int i = 0; i < repetitions; i++) {
+            boolean atteinte = arretees[i][0] <= cible + 1e-9;
+            if (atteinte) atteintes++;
+            tempsCible[i] = atteinte ? arretees[i][1] : Double.POSITIVE_INFINITY;
+        }
+
+        out.println(String.join(",", instance.nom,
+                Integer.toString(modele.getMaisons().size()),
+                Integer.toString(modele.getGenerateurs().size()),
+                format(reference), format(cible),
+                Integer.toString(repetitions), Integer.toString(atteintes),
+                percentiles(couts), percentiles(durees), percentiles(tempsCible)));
+        out.flush();
+    }
+
+    /**
+     * Résout {@code repetitions} copies de l'instance, graines 0, 1, ..., en parallèle.
+     *
+     * @return pour chaque graine, le coût final et la durée de la résolution en millisecondes
+     */
+    private static double[][] executer(Instance instance, int repetitions, ParametresOptimisation parametres,
+                                       ExecutorService executeur) throws InterruptedException, IOException {
+        List<Future<double[]>> resultats = new ArrayList<>();
+        for (int graine = 0; graine < repetitions; graine++) {
+            final long g = graine;
+            resultats.add(executeur.submit(() -> {
+                Reseau reseau = ReseauFactory.parserReseau(PENALITE, instance.fichier);
+                Optimiseur optimiseur = new Optimiseur(parametres, g);
+                long debut = System.nanoTime();
+                double cout = optimiseur.resoudre(reseau).getCout();
+                return new double[]{cout, (System.nanoTime() - debut) / 1e6};
+            }));
+        }
+        double[][] mesures = new double[repetitions][];
+        try {
+            for (int i = 0; i < repetitions; i++) {
+                mesures[i] = resultats.get(i).get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Échec d'une résolution de " + instance.nom, e.getCause());
+        }
+        return mesures;
+    }
+
+    /**
+     * Lit les instances du corpus et leur coût optimal.
+     */
+    private static List<Instance> lireCorpus() throws IOException {
+        List<Instance> instances = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(RESSOURCES + "instanceCoutOptimal.csv"))) {
+            String ligne = br.readLine(); // en-tête
+            while ((ligne = br.readLine()) != null) {
+                if (ligne.isBlank()) continue;
+                String[] champs = ligne.split(",");
+                String nom = champs[0].trim();
+                instances.add(new Instance(nom, RESSOURCES + nom + ".txt", Double.parseDouble(champs[1].trim())));
+            }
+        }
+        return instances;
+    }
+
+    private static String colonnes(String mesure) {
+        StringBuilder sb = new StringBuilder();
+        for (double p : PERCENTILES) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(mesure).append("_p").append((int) p);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return les percentiles des valeurs (rang le plus proche), séparés par des virgules
+     */
+    private static String percentiles(double[] valeurs) {
+        double[] tries = valeurs.clone();
+        Arrays.sort(tries);
+        StringBuilder sb = new StringBuilder();
+        for (double p : PERCENTILES) {
+            if (sb.length() > 0) sb.append(',');
+            int rang = (int) Math.ceil(p / 100 * tries.length);
+            sb.append(format(tries[Math.max(0, rang - 1)]));
+        }
+        return sb.toString();
+    }
+
+    private static String format(double valeur) {
+        return Double.isInfinite(valeur) ? "inf" : String.format(Locale.ROOT, "%.4f", valeur);
+    }
+
+    /** Instance du corpus : nom, fichier et coût optimal connu (NaN si inconnu) */
+    private static final class Instance {
+        final String nom;
+        final String fichier;
+        final double coutOptimal;
+
+        Instance(String nom, String fichier, double coutOptimal) {
+            this.nom = nom;
+            this.fichier = fichier;
+            this.coutOptimal = coutOptimal;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package reseau;
+
+import factory.GenerateurInstances;
+import factory.ReseauFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Réseaux synthétiques partagés par les benchmarks (voir {@link GenerateurInstances}).
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class Instances {
+
+    private Instances() {}
+
+    /**
+     * @param nbMaisons le nombre de maisons
+     * @return le nombre de générateurs associé : une cinquantaine de maisons par générateur
+     */
+    static int nbGenerateurs(int nbMaisons) {
+        return Math.max(3, nbMaisons / 50);
+    }
+
+    /**
+     * Construit un réseau synthétique reproductible, maisons connectées au hasard, coût calculé.
+     *
+     * @param nbMaisons le nombre de maisons
+     * @return le réseau
+     * @throws IOException si le fichier intermédiaire ne peut être écrit ou relu
+     */
+    static Reseau reseau(int nbMaisons) throws IOException {
+        File fichier = File.createTempFile("benchmark", ".txt");
+        try {
+            new GenerateurInstances(nbGenerateurs(nbMaisons), nbMaisons, 1).ecrireTexte(fichier.getAbsolutePath());
+            Reseau reseau = ReseauFactory.parserReseau(10, fichier.getAbsolutePath());
+            reseau.calculCout();
+            return reseau;
+        } finally {
+            fichier.delete();
+        }
+    }
+}
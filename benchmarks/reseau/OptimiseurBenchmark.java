@@ -0,0 +1,73 @@
+package reseau;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks des mouvements du recuit sur le {@link NoyauReseau} : tentatives de
+ * déplacement et d'échange, et choix de la maison et du générateur cible.
+ * <p>
+ * Les tentatives acceptées modifient le noyau : comme dans le recuit, la mesure porte sur
+ * une affectation qui évolue, à température fixe.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OptimiseurBenchmark {
+
+    /** Température des tentatives */
+    private static final double TEMPERATURE = 1.0;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int nbMaisons;
+
+    private NoyauReseau noyau;
+    private Optimiseur optimiseur;
+    private SplittableRandom random;
+
+    @Setup
+    public void preparer() throws IOException {
+        noyau = NoyauReseau.depuis(Instances.reseau(nbMaisons));
+        optimiseur = new Optimiseur(new ParametresOptimisation(), new SplittableRandom(1));
+        random = new SplittableRandom(2);
+    }
+
+    @Benchmark
+    public boolean tentativeDeplacement() {
+        return optimiseur.tentativeDeplacement(noyau, TEMPERATURE);
+    }
+
+    @Benchmark
+    public boolean tentativeSwap() {
+        return optimiseur.tentativeSwap(noyau, TEMPERATURE);
+    }
+
+    @Benchmark
+    public int choisirMaisonIntelligente() {
+        return optimiseur.choisirMaisonIntelligente(noyau);
+    }
+
+    @Benchmark
+    public int choisirGenerateurIntelligent() {
+        return optimiseur.choisirGenerateurIntelligent(random.nextInt(noyau.nombreMaisons()), noyau);
+    }
+}
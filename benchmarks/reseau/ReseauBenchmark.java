@@ -0,0 +1,69 @@
+package reseau;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks du modèle objet : calcul complet du coût et changement de connexion.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReseauBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int nbMaisons;
+
+    private Reseau reseau;
+    private Maison[] maisons;
+    private Generateur[] generateurs;
+    /** Générateur courant de chaque maison, tenu à jour par les déplacements */
+    private int[] affectation;
+    private SplittableRandom random;
+
+    @Setup
+    public void preparer() throws IOException {
+        reseau = Instances.reseau(nbMaisons);
+        maisons = reseau.getMaisonsParId().toArray(new Maison[0]);
+        generateurs = reseau.getGenerateurs().toArray(new Generateur[0]);
+        affectation = reseau.getInstantane();
+        random = new SplittableRandom(1);
+    }
+
+    @Benchmark
+    public double calculCout() {
+        reseau.calculCout();
+        return reseau.getCout();
+    }
+
+    /** Déplace une maison tirée au hasard vers un générateur tiré au hasard */
+    @Benchmark
+    public int changeConnexion() {
+        int m = random.nextInt(maisons.length);
+        int cible = random.nextInt(generateurs.length);
+        if (cible != affectation[m]) {
+            reseau.changeConnexion(maisons[m], generateurs[affectation[m]], generateurs[cible]);
+            affectation[m] = cible;
+        }
+        return cible;
+    }
+}
@@ -0,0 +1,594 @@
+package reseau;
+
+import java.util.Arrays;
+
+/**
+ * Arbre d'ordre statistique (treap) indexant les taux d'utilisation des générateurs.
+ * <p>
+ * Chaque élément est identifié par un entier dense (l'indice du générateur) et
+ * porte une clé (son taux d'utilisation). Chaque nœud maintient le nombre
+ * d'éléments et la somme des clés de son sous-arbre, ce qui permet d'obtenir
+ * en O(log G) :
+ * <ul>
+ * <li>la dispersion autour d'une référence : Σ|u - référence|</li>
+ * <li>la surcharge : Σ max(0, u - 1)</li>
+ * <li>le poids total des éléments de clé inférieure ou supérieure à une borne,
+ * et l'élément de rang donné dans l'ordre des clés pondéré par ces poids</li>
+ * <li>le prédécesseur et le successeur d'une position dans l'ordre (clé, identifiant)</li>
+ * </ul>
+ * Les nœuds sont stockés dans des tableaux primitifs indexés par identifiant,
+ * sans allocation lors des mises à jour.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class ArbreUtilisations {
+
+    /** Indice représentant l'absence de nœud */
+    private static final int VIDE = -1;
+
+    /** Clé (taux d'utilisation) de chaque élément */
+    private double[] cle;
+
+    /** Somme des clés du sous-arbre enraciné en chaque nœud */
+    private double[] somme;
+
+    /** Nombre d'éléments du sous-arbre enraciné en chaque nœud */
+    private int[] taille;
+
+    /** Poids entier de chaque élément (0 par défaut) */
+    private int[] poids;
+
+    /** Somme des poids du sous-arbre enraciné en chaque nœud */
+    private long[] sommePoids;
+
+    /** Fils gauche et droit de chaque nœud */
+    private int[] gauche;
+    private int[] droite;
+
+    /** Priorité aléatoire de chaque nœud (propriété de tas du treap) */
+    private int[] priorite;
+
+    /** Racine de l'arbre */
+    private int racine;
+
+    /** Nombre d'éléments insérés */
+    private int nombre;
+
+    /** État du générateur pseudo-aléatoire des priorités (xorshift, déterministe) */
+    private int graine;
+
+    /** Résultats de la dernière requête de préfixe (évite toute allocation) */
+    private int compteurPrefixe;
+    private double sommePrefixe;
+    private long poidsPrefixe;
+
+    /** Rang résiduel, au sein de l'élément trouvé, de la dernière requête de rang pondéré */
+    private long rangResiduel;
+
+    /** Nœuds produits par la dernière découpe */
+    private int decoupeGauche;
+    private int decoupeDroite;
+
+    /**
+     * Crée un arbre vide.
+     *
+     * @param capaciteInitiale nombre d'éléments prévus (les tableaux s'agrandissent au besoin)
+     */
+    ArbreUtilisations(int capaciteInitiale) {
+        int capacite = Math.max(4, capaciteInitiale);
+        cle = new double[capacite];
+        somme = new double[capacite];
+        taille = new int[capacite];
+        poids = new int[capacite];
+        sommePoids = new long[capacite];
+        gauche = new int[capacite];
+        droite = new int[capacite];
+        priorite = new int[capacite];
+        racine = VIDE;
+        nombre = 0;
+        graine = 0x9E3779B9;
+    }
+
+    /**
+     * Construit d'un bloc un arbre contenant les éléments 0..n-1 : tri des clés en
+     * O(G log G), puis assemblage en O(G) sans aucune rotation. Chaque élément reçoit la
+     * priorité que lui auraient donnée des insertions successives ; la forme d'un treap ne
+     * dépendant que des clés et des priorités, l'arbre obtenu est exactement celui qu'auraient
+     * produit {@code n} appels à {@link #inserer(int, double)}.
+     *
+     * @param valeurs la clé de chaque élément, indexée par identifiant
+     * @param n le nombre d'éléments
+     * @return l'arbre construit
+     */
+    static ArbreUtilisations construire(double[] valeurs, int n) {
+        ArbreUtilisations arbre = new ArbreUtilisations(n);
+        for (int id = 0; id < n; id++) {
+            arbre.graine ^= arbre.graine << 13;
+            arbre.graine ^= arbre.graine >>> 17;
+            arbre.graine ^= arbre.graine << 5;
+            arbre.priorite[id] = arbre.graine;
+            arbre.cle[id] = valeurs[id];
+            arbre.reinitialiserNoeud(id);
+        }
+        arbre.nombre = n;
+
+        Integer[] ordre = new Integer[n];
+        for (int id = 0; id < n; id++) ordre[id] = id;
+        Arrays.sort(ordre, (a, b) -> arbre.avant(a, b) ? -1 : (arbre.avant(b, a) ? 1 : 0));
+
+        // arbre cartésien : la pile tient la branche droite, priorités décroissantes
+        int[] pile = new int[n];
+        int hauteur = 0;
+        for (int t : ordre) {
+            int dernier = VIDE;
+            while (hauteur > 0 && arbre.priorite[pile[hauteur - 1]] < arbre.priorite[t]) {
+                dernier = pile[--hauteur];
+            }
+            arbre.gauche[t] = dernier;
+            if (hauteur > 0) {
+                arbre.droite[pile[hauteur - 1]] = t;
+            }
+            pile[hauteur++] = t;
+        }
+        arbre.racine = hauteur > 0 ? pile[0] : VIDE;
+        arbre.recalculerSousArbre(arbre.racine);
+        return arbre;
+    }
+
+    /**
+     * Insère un nouvel élément. Les identifiants doivent être attribués
+     * dans l'ordre 0, 1, 2...
+     *
+     * @param id l'identifiant de l'élément (égal au nombre d'éléments déjà insérés)
+     * @param valeur la clé de l'élément
+     */
+    void inserer(int id, double valeur) {
+        inserer(id, valeur, 0);
+    }
+
+    /**
+     * Insère un nouvel élément pondéré. Les identifiants doivent être attribués
+     * dans l'ordre 0, 1, 2...
+     *
+     * @param id l'identifiant de l'élément (égal au nombre d'éléments déjà insérés)
+     * @param valeur la clé de l'élément
+     * @param nouveauPoids le poids de l'élément, positif ou nul
+     */
+    void inserer(int id, double valeur, int nouveauPoids) {
+        if (id != nombre) {
+            throw new IllegalArgumentException("Identifiant non dense : " + id);
+        }
+        if (id == cle.length) {
+            agrandir();
+        }
+        graine ^= graine << 13;
+        graine ^= graine >>> 17;
+        graine ^= graine << 5;
+        priorite[id] = graine;
+        cle[id] = valeur;
+        poids[id] = nouveauPoids;
+        nombre++;
+        reinitialiserNoeud(id);
+        racine = inserer(racine, id);
+    }
+
+    /**
+     * Modifie la clé d'un élément existant en O(log G).
+     *
+     * @param id l'identifiant de l'élément
+     * @param valeur la nouvelle clé
+     */
+    void mettreAJour(int id, double valeur) {
+        mettreAJour(id, valeur, poids[id]);
+    }
+
+    /**
+     * Modifie la clé et le poids d'un élément existant en O(log G).
+     *
+     * @param id l'identifiant de l'élément
+     * @param valeur la nouvelle clé
+     * @param nouveauPoids le nouveau poids, positif ou nul
+     */
+    void mettreAJour(int id, double valeur, int nouveauPoids) {
+        if (cle[id] == valeur && poids[id] == nouveauPoids) {
+            return;
+        }
+        racine = retirer(racine, id);
+        cle[id] = valeur;
+        poids[id] = nouveauPoids;
+        reinitialiserNoeud(id);
+        racine = inserer(racine, id);
+    }
+
+    /**
+     * Crée une copie indépendante de l'arbre, en O(G).
+     *
+     * @return la copie
+     */
+    ArbreUtilisations copie() {
+        ArbreUtilisations c = new ArbreUtilisations(0);
+        c.cle = cle.clone();
+        c.somme = somme.clone();
+        c.taille = taille.clone();
+        c.poids = poids.clone();
+        c.sommePoids = sommePoids.clone();
+        c.gauche = gauche.clone();
+        c.droite = droite.clone();
+        c.priorite = priorite.clone();
+        c.racine = racine;
+        c.nombre = nombre;
+        c.graine = graine;
+        return c;
+    }
+
+    /**
+     * Retourne le nombre d'éléments.
+     *
+     * @return le nombre d'éléments
+     */
+    int taille() {
+        return nombre;
+    }
+
+    /**
+     * Retourne la clé courante d'un élément.
+     *
+     * @param id l'identifiant de l'élément
+     * @return sa clé
+     */
+    double valeur(int id) {
+        return cle[id];
+    }
+
+    /**
+     * Retourne la somme de toutes les clés.
+     *
+     * @return la somme des clés
+     */
+    double somme() {
+        return racine == VIDE ? 0.0 : somme[racine];
+    }
+
+    /**
+     * Retourne la somme de tous les poids.
+     *
+     * @return le poids total
+     */
+    long poidsTotal() {
+        return racine == VIDE ? 0L : sommePoids[racine];
+    }
+
+    /**
+     * Calcule en O(log G) le poids total des éléments de clé strictement inférieure à une borne.
+     *
+     * @param borne la borne
+     * @return la somme des poids correspondants
+     */
+    long poidsInferieurA(double borne) {
+        prefixe(borne, false);
+        return poidsPrefixe;
+    }
+
+    /**
+     * Calcule en O(log G) le poids total des éléments de clé strictement supérieure à une borne.
+     *
+     * @param borne la borne
+     * @return la somme des poids correspondants
+     */
+    long poidsSuperieurA(double borne) {
+        prefixe(borne, true);
+        return poidsTotal() - poidsPrefixe;
+    }
+
+    /**
+     * Retrouve en O(log G) l'élément contenant un rang donné, les éléments étant parcourus
+     * par clé croissante et chacun occupant autant de rangs que son poids. Le rang au sein
+     * de l'élément trouvé est ensuite disponible via {@link #rangResiduel()}.
+     *
+     * @param rang un rang entre 0 et {@code poidsTotal() - 1}
+     * @return l'identifiant de l'élément
+     */
+    int elementDeRangPondere(long rang) {
+        int t = racine;
+        while (t != VIDE) {
+            int g = gauche[t];
+            long poidsGauche = g == VIDE ? 0L : sommePoids[g];
+            if (rang < poidsGauche) {
+                t = g;
+                continue;
+            }
+            rang -= poidsGauche;
+            if (rang < poids[t]) {
+                rangResiduel = rang;
+                return t;
+            }
+            rang -= poids[t];
+            t = droite[t];
+        }
+        throw new IllegalArgumentException("Rang hors du poids total : " + rang);
+    }
+
+    /**
+     * Retourne le rang, au sein de son élément, trouvé par le dernier appel à
+     * {@link #elementDeRangPondere(long)}.
+     *
+     * @return un rang entre 0 et le poids de l'élément - 1
+     */
+    long rangResiduel() {
+        return rangResiduel;
+    }
+
+    /**
+     * Retourne en O(log G) le premier élément strictement après la position (valeur, id)
+     * dans l'ordre des clés puis des identifiants. Avec {@code id = -1}, c'est le premier
+     * élément de clé supérieure ou égale à {@code valeur}.
+     *
+     * @param valeur la clé de la position
+     * @param id l'identifiant de la position
+     * @return l'identifiant de l'élément, ou -1 s'il n'y en a aucun
+     */
+    int suivant(double valeur, int id) {
+        int resultat = VIDE;
+        int t = racine;
+        while (t != VIDE) {
+            if (cle[t] > valeur || (cle[t] == valeur && t > id)) {
+                resultat = t;
+                t = gauche[t];
+            } else {
+                t = droite[t];
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Retourne en O(log G) le dernier élément strictement avant la position (valeur, id)
+     * dans l'ordre des clés puis des identifiants. Avec {@code id = -1}, c'est le dernier
+     * élément de clé strictement inférieure à {@code valeur}.
+     *
+     * @param valeur la clé de la position
+     * @param id l'identifiant de la position
+     * @return l'identifiant de l'élément, ou -1 s'il n'y en a aucun
+     */
+    int precedent(double valeur, int id) {
+        int resultat = VIDE;
+        int t = racine;
+        while (t != VIDE) {
+            if (cle[t] < valeur || (cle[t] == valeur && t < id)) {
+                resultat = t;
+                t = droite[t];
+            } else {
+                t = gauche[t];
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Calcule Σ|u - reference| sur tous les éléments en O(log G).
+     *
+     * @param reference la valeur de référence (typiquement le taux moyen)
+     * @return la somme des écarts absolus
+     */
+    double sommeEcartsAbsolus(double reference) {
+        prefixe(reference, false);
+        double total = somme();
+        return (reference * compteurPrefixe - sommePrefixe)
+                + ((total - sommePrefixe) - reference * (nombre - compteurPrefixe));
+    }
+
+    /**
+     * Calcule Σ max(0, u - 1) sur tous les éléments en O(log G).
+     *
+     * @return la somme des dépassements de capacité
+     */
+    double sommeDepassements() {
+        prefixe(1.0, true);
+        return (somme() - sommePrefixe) - (nombre - compteurPrefixe);
+    }
+
+    /**
+     * Calcule le coût (dispersion + pénalité × surcharge) des clés courantes en O(log G).
+     *
+     * @param penalite le coefficient de pénalité appliqué aux surcharges
+     * @return le coût
+     */
+    double cout(double penalite) {
+        return sommeEcartsAbsolus(somme() / nombre) + (penalite * sommeDepassements());
+    }
+
+    /**
+     * Calcule la variation du coût si les clés de deux éléments distincts étaient
+     * remplacées, sans modifier l'arbre, en O(log G).
+     * <p>
+     * La dispersion est évaluée autour de la nouvelle moyenne sur les clés courantes,
+     * puis corrigée des contributions des deux éléments modifiés. Les termes sont
+     * regroupés en différences pour qu'un mouvement neutre donne exactement 0.
+     *
+     * @param a le premier élément modifié
+     * @param nouveauA la nouvelle clé de {@code a}
+     * @param b le second élément modifié
+     * @param nouveauB la nouvelle clé de {@code b}
+     * @param penalite le coefficient de pénalité appliqué aux surcharges
+     * @return coût après remplacement moins coût actuel
+     */
+    double variationCout(int a, double nouveauA, int b, double nouveauB, double penalite) {
+        double tauxA = cle[a];
+        double tauxB = cle[b];
+
+        double sommeTaux = somme();
+        double moyenne = sommeTaux / nombre;
+        double nouvelleMoyenne = (sommeTaux + ((nouveauA - tauxA) + (nouveauB - tauxB))) / nombre;
+
+        double variationDisp = (sommeEcartsAbsolus(nouvelleMoyenne) - sommeEcartsAbsolus(moyenne))
+                + ((Math.abs(nouveauA - nouvelleMoyenne) - Math.abs(tauxA - nouvelleMoyenne))
+                + (Math.abs(nouveauB - nouvelleMoyenne) - Math.abs(tauxB - nouvelleMoyenne)));
+        double variationSurcharge = (depassement(nouveauA) - depassement(tauxA))
+                + (depassement(nouveauB) - depassement(tauxB));
+
+        return variationDisp + (penalite * variationSurcharge);
+    }
+
+    /** Dépassement de capacité correspondant à un taux d'utilisation. */
+    private static double depassement(double taux) {
+        return taux > 1 ? taux - 1 : 0.0;
+    }
+
+    /**
+     * Compte, somme et pèse les clés inférieures (ou égales) à une borne. Le résultat
+     * est placé dans {@code compteurPrefixe}, {@code sommePrefixe} et {@code poidsPrefixe}.
+     */
+    private void prefixe(double borne, boolean inclus) {
+        int compte = 0;
+        double total = 0.0;
+        long totalPoids = 0L;
+        int t = racine;
+        while (t != VIDE) {
+            if (cle[t] < borne || (inclus && cle[t] == borne)) {
+                int g = gauche[t];
+                if (g != VIDE) {
+                    compte += taille[g];
+                    total += somme[g];
+                    totalPoids += sommePoids[g];
+                }
+                compte++;
+                total += cle[t];
+                totalPoids += poids[t];
+                t = droite[t];
+            } else {
+                t = gauche[t];
+            }
+        }
+        compteurPrefixe = compte;
+        sommePrefixe = total;
+        poidsPrefixe = totalPoids;
+    }
+
+    /** Ordre total sur les éléments : par clé puis par identifiant. */
+    private boolean avant(int a, int b) {
+        return cle[a] < cle[b] || (cle[a] == cle[b] && a < b);
+    }
+
+    private int inserer(int t, int n) {
+        if (t == VIDE) {
+            return n;
+        }
+        if (priorite[n] > priorite[t]) {
+            decouper(t, n);
+            gauche[n] = decoupeGauche;
+            droite[n] = decoupeDroite;
+            recalculer(n);
+            return n;
+        }
+        if (avant(n, t)) {
+            gauche[t] = inserer(gauche[t], n);
+        } else {
+            droite[t] = inserer(droite[t], n);
+        }
+        recalculer(t);
+        return t;
+    }
+
+    /** Découpe le sous-arbre t en éléments avant n et éléments après n. */
+    private void decouper(int t, int n) {
+        if (t == VIDE) {
+            decoupeGauche = VIDE;
+            decoupeDroite = VIDE;
+            return;
+        }
+        if (avant(t, n)) {
+            decouper(droite[t], n);
+            droite[t] = decoupeGauche;
+            recalculer(t);
+            decoupeGauche = t;
+        } else {
+            decouper(gauche[t], n);
+            gauche[t] = decoupeDroite;
+            recalculer(t);
+            decoupeDroite = t;
+        }
+    }
+
+    private int retirer(int t, int n) {
+        if (t == n) {
+            return fusionner(gauche[t], droite[t]);
+        }
+        if (avant(n, t)) {
+            gauche[t] = retirer(gauche[t], n);
+        } else {
+            droite[t] = retirer(droite[t], n);
+        }
+        recalculer(t);
+        return t;
+    }
+
+    private int fusionner(int a, int b) {
+        if (a == VIDE) {
+            return b;
+        }
+        if (b == VIDE) {
+            return a;
+        }
+        if (priorite[a] > priorite[b]) {
+            droite[a] = fusionner(droite[a], b);
+            recalculer(a);
+            return a;
+        }
+        gauche[b] = fusionner(a, gauche[b]);
+        recalculer(b);
+        return b;
+    }
+
+    /** Recalcule les agrégats de tout un sous-arbre, fils avant parents. */
+    private void recalculerSousArbre(int t) {
+        if (t == VIDE) {
+            return;
+        }
+        recalculerSousArbre(gauche[t]);
+        recalculerSousArbre(droite[t]);
+        recalculer(t);
+    }
+
+    /** Recalcule les agrégats d'un nœud à partir de ses fils (aucune dérive numérique). */
+    private void recalculer(int t) {
+        int g = gauche[t];
+        int d = droite[t];
+        int n = 1;
+        double s = cle[t];
+        long p = poids[t];
+        if (g != VIDE) {
+            n += taille[g];
+            s = somme[g] + s;
+            p += sommePoids[g];
+        }
+        if (d != VIDE) {
+            n += taille[d];
+            s = s + somme[d];
+            p += sommePoids[d];
+        }
+        taille[t] = n;
+        somme[t] = s;
+        sommePoids[t] = p;
+    }
+
+    private void reinitialiserNoeud(int id) {
+        gauche[id] = VIDE;
+        droite[id] = VIDE;
+        taille[id] = 1;
+        somme[id] = cle[id];
+        sommePoids[id] = poids[id];
+    }
+
+    private void agrandir() {
+        int capacite = cle.length * 2;
+        cle = Arrays.copyOf(cle, capacite);
+        somme = Arrays.copyOf(somme, capacite);
+        taille = Arrays.copyOf(taille, capacite);
+        poids = Arrays.copyOf(poids, capacite);
+        sommePoids = Arrays.copyOf(sommePoids, capacite);
+        gauche = Arrays.copyOf(gauche, capacite);
+        droite = Arrays.copyOf(droite, capacite);
+        priorite = Arrays.copyOf(priorite, capacite);
+    }
+}
@@ -0,0 +1,131 @@
+package reseau;
+
+/**
+ * Borne inférieure du coût de toute affectation complète d'un réseau.
+ * <p>
+ * Elle ne dépend que de la charge totale, des capacités et de la granularité des
+ * consommations, et se décompose en deux termes valides séparément :
+ * <ul>
+ * <li><b>Surcharge</b> : si la charge totale L dépasse la capacité totale, au moins
+ * {@code L - Σc} kW sont en excès, soit un dépassement d'au moins {@code (L - Σc) / cmax}.</li>
+ * <li><b>Granularité</b> : toute charge est un multiple de d (PGCD des consommations
+ * présentes), donc un générateur de capacité c ne peut avoir qu'un taux de la forme
+ * k·d/c. Pour une moyenne ū, la dispersion est au moins
+ * {@code h(ū) = Σ dist(ū·c_g, dℤ) / c_g}. La moyenne ne peut valoir qu'une valeur
+ * de [L / (G·cmax), L / (G·cmin)] ; h étant affine par morceaux et ses points
+ * anguleux rentrants étant les taux atteignables k·d/c_g, son minimum sur cet
+ * intervalle est atteint en une borne ou en l'un de ces points.</li>
+ * </ul>
+ * Si le nombre de points candidats est trop grand, le terme de granularité est
+ * abandonné (la borne reste valide, mais plus faible).
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class BorneInferieure {
+
+    /** Nombre maximal d'évaluations élémentaires (points candidats × générateurs) */
+    private static final long MAX_EVALUATIONS = 5_000_000L;
+
+    private BorneInferieure() {
+    }
+
+    /**
+     * Calcule la borne inférieure du coût pour le réseau représenté par le noyau,
+     * en supposant toutes ses maisons connectées.
+     *
+     * @param noyau le noyau
+     * @return une borne inférieure du coût (0 au pire)
+     */
+    static double calculer(NoyauReseau noyau) {
+        int nbGenerateurs = noyau.nombreGenerateurs();
+        if (nbGenerateurs == 0 || noyau.nombreMaisons() == 0) return 0.0;
+
+        long chargeTotale = 0;
+        int pas = 0;
+        for (int m = 0; m < noyau.nombreMaisons(); m++) {
+            chargeTotale += noyau.consommation(m);
+            pas = pgcd(pas, noyau.consommation(m));
+        }
+
+        long capaciteTotale = 0;
+        int cmax = 0;
+        int cminPositive = Integer.MAX_VALUE;
+        boolean capaciteNulle = false;
+        for (int g = 0; g < nbGenerateurs; g++) {
+            int c = noyau.capacite(g);
+            capaciteTotale += c;
+            cmax = Math.max(cmax, c);
+            if (c > 0) cminPositive = Math.min(cminPositive, c);
+            else capaciteNulle = true;
+        }
+        // toutes les capacités nulles : tous les taux valent 0
+        if (cmax == 0) return 0.0;
+
+        // une maison sur un générateur de capacité nulle ne compte jamais en surcharge
+        double surcharge = 0.0;
+        if (!capaciteNulle && chargeTotale > capaciteTotale) {
+            surcharge = (double) (chargeTotale - capaciteTotale) / cmax;
+        }
+
+        double moyenneMin = capaciteNulle ? 0.0 : (double) chargeTotale / cmax / nbGenerateurs;
+        double moyenneMax = (double) chargeTotale / cminPositive / nbGenerateurs;
+
+        return granularite(noyau, pas, moyenneMin, moyenneMax) + noyau.penalite() * surcharge;
+    }
+
+    /**
+     * Minimum de h sur [moyenneMin, moyenneMax], ou 0 si trop de points candidats.
+     */
+    private static double granularite(NoyauReseau noyau, int pas, double moyenneMin, double moyenneMax) {
+        int nbGenerateurs = noyau.nombreGenerateurs();
+
+        long candidats = 2;
+        for (int g = 0; g < nbGenerateurs; g++) {
+            int c = noyau.capacite(g);
+            if (c > 0) {
+                candidats += (long) Math.floor(moyenneMax * c / pas) - (long) Math.ceil(moyenneMin * c / pas) + 1;
+            }
+        }
+        if (candidats * nbGenerateurs > MAX_EVALUATIONS) return 0.0;
+
+        double minimum = Math.min(h(noyau, pas, moyenneMin), h(noyau, pas, moyenneMax));
+        for (int g = 0; g < nbGenerateurs; g++) {
+            int c = noyau.capacite(g);
+            if (c == 0) continue;
+            long kMax = (long) Math.floor(moyenneMax * c / pas);
+            for (long k = (long) Math.ceil(moyenneMin * c / pas); k <= kMax; k++) {
+                minimum = Math.min(minimum, h(noyau, pas, (double) k * pas / c));
+            }
+        }
+        // marge pour les erreurs d'arrondi : la borne ne doit jamais dépasser un coût atteignable
+        return Math.max(0.0, minimum - 1e-9);
+    }
+
+    /**
+     * Dispersion minimale pour une moyenne donnée : Σ distance de ū au taux atteignable le plus proche.
+     */
+    private static double h(NoyauReseau noyau, int pas, double moyenne) {
+        double total = 0.0;
+        for (int g = 0; g < noyau.nombreGenerateurs(); g++) {
+            int c = noyau.capacite(g);
+            if (c == 0) {
+                total += moyenne;
+                continue;
+            }
+            double charge = moyenne * c;
+            double reste = charge - Math.floor(charge / pas) * pas;
+            total += Math.min(reste, pas - reste) / c;
+        }
+        return total;
+    }
+
+    private static int pgcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,183 @@
+package reseau;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Recuit par échange de répliques (parallel tempering).
+ * <p>
+ * N copies du noyau (répliques) évoluent chacune à une température fixe d'une
+ * échelle géométrique entre {@code temperatureMin} et {@code temperatureMaxRepliques},
+ * avec les mêmes mouvements que le recuit ({@link Optimiseur#tentativeDeplacement},
+ * {@link Optimiseur#tentativeSwap}). Les répliques avancent en parallèle, un fil par
+ * réplique ; entre deux tours, les configurations de températures voisines sont
+ * échangées selon le critère de Metropolis :
+ * <pre>
+ *   P(échange i ↔ i+1) = min(1, exp((1/T_i - 1/T_{i+1}) · (E_i - E_{i+1})))
+ * </pre>
+ * Plutôt que de copier les configurations, on échange les températures : seul
+ * l'indice réplique ↔ niveau est permuté. Une configuration bloquée sur un plateau
+ * à basse température peut ainsi remonter l'échelle, s'en échapper, puis redescendre.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class EchangeRepliques {
+
+    /** Paramètres de l'algorithme (partagés en lecture seule avec les chaînes) */
+    private final ParametresOptimisation parametres;
+
+    /** Générateur pseudo-aléatoire des échanges, dont dérivent ceux des chaînes */
+    private final SplittableRandom random;
+
+    /**
+     * @param parametres les paramètres de l'algorithme
+     * @param random le générateur pseudo-aléatoire de ce moteur
+     */
+    EchangeRepliques(ParametresOptimisation parametres, SplittableRandom random) {
+        this.parametres = parametres;
+        this.random = random;
+    }
+
+    /**
+     * Optimise le réseau par échange de répliques, puis applique une descente locale
+     * à la meilleure configuration rencontrée.
+     *
+     * @param reseau le réseau à optimiser
+     * @param nbRepliques le nombre de répliques (et de fils d'exécution)
+     * @param jeton le jeton d'annulation, consulté entre deux tours et pendant la descente finale
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     * @throws IllegalArgumentException si nbRepliques est inférieur à 2
+     */
+    double optimiser(Reseau reseau, int nbRepliques, JetonAnnulation jeton) {
+        if (nbRepliques < 2) {
+            throw new IllegalArgumentException("L'échange de répliques nécessite au moins 2 répliques.");
+        }
+        boolean verbeux = parametres.isVerbeux();
+        int nbTours = parametres.getNbEchangesRepliques();
+        int iterationsParTour = parametres.getIterationsEntreEchanges();
+        if (verbeux) {
+            System.out.printf("%n=== RESOLUTION PAR ECHANGE DE REPLIQUES (%d répliques x %d tours) ===%n%n",
+                    nbRepliques, nbTours);
+        }
+        long debutTotal = System.currentTimeMillis();
+
+        // les chaînes n'affichent rien : leurs traces s'entremêleraient
+        ParametresOptimisation parametresChaines = new ParametresOptimisation(parametres);
+        parametresChaines.setVerbeux(false);
+        parametresChaines.setTailleTrace(0);
+
+        NoyauReseau initial = NoyauReseau.depuis(reseau);
+        int[] solutionOrigine = initial.copierAffectation();
+        Optimiseur principal = new Optimiseur(parametresChaines, random.split());
+        if (!principal.construireSolutionInitiale(initial, jeton)) {
+            principal.completerConstructionInterrompue(solutionOrigine, initial);
+            Optimiseur.reporter(initial, reseau, solutionOrigine);
+            return reseau.getCout();
+        }
+
+        double[] temperatures = echelleTemperatures(parametres.getTemperatureMin(),
+                parametres.getTemperatureMaxRepliques(), nbRepliques);
+        NoyauReseau[] repliques = new NoyauReseau[nbRepliques];
+        Optimiseur[] chaines = new Optimiseur[nbRepliques];
+        int[] repliqueAuNiveau = new int[nbRepliques];
+        for (int r = 0; r < nbRepliques; r++) {
+            repliques[r] = initial.copie();
+            chaines[r] = new Optimiseur(parametresChaines, random.split());
+            repliqueAuNiveau[r] = r;
+        }
+
+        double meilleurCout = initial.cout();
+        int[] meilleureSolution = initial.copierAffectation();
+        int[] tentativesEchange = new int[nbRepliques - 1];
+        int[] echangesAcceptes = new int[nbRepliques - 1];
+
+        ExecutorService executeur = Executors.newFixedThreadPool(nbRepliques);
+        try {
+            List<Callable<Void>> taches = new ArrayList<>(nbRepliques);
+            for (int tour = 0; tour < nbTours && !jeton.estAnnule(); tour++) {
+                // 1) chaque réplique avance à la température de son niveau
+                taches.clear();
+                for (int niveau = 0; niveau < nbRepliques; niveau++) {
+                    final int r = repliqueAuNiveau[niveau];
+                    final double temperature = temperatures[niveau];
+                    taches.add(() -> {
+                        chaines[r].marcheMetropolis(repliques[r], temperature, iterationsParTour);
+                        return null;
+                    });
+                }
+                for (Future<Void> resultat : executeur.invokeAll(taches)) {
+                    resultat.get();
+                }
+
+                // 2) meilleure configuration rencontrée
+                for (int r = 0; r < nbRepliques; r++) {
+                    double cout = repliques[r].cout();
+                    if (cout < meilleurCout) {
+                        meilleurCout = cout;
+                        repliques[r].copierAffectation(meilleureSolution);
+                    }
+                }
+
+                // 3) échanges entre niveaux voisins, paires paires et impaires en alternance
+                for (int niveau = tour % 2; niveau + 1 < nbRepliques; niveau += 2) {
+                    int a = repliqueAuNiveau[niveau];
+                    int b = repliqueAuNiveau[niveau + 1];
+                    double exposant = (1.0 / temperatures[niveau] - 1.0 / temperatures[niveau + 1])
+                            * (repliques[a].cout() - repliques[b].cout());
+                    tentativesEchange[niveau]++;
+                    if (exposant >= 0 || Math.exp(exposant) > random.nextDouble()) {
+                        repliqueAuNiveau[niveau] = b;
+                        repliqueAuNiveau[niveau + 1] = a;
+                        echangesAcceptes[niveau]++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'une réplique", e.getCause());
+        } finally {
+            executeur.shutdownNow();
+        }
+
+        // Descente locale sur la meilleure configuration, puis report sur le réseau
+        principal.restaurerSolution(meilleureSolution, initial);
+        principal.descenteLocale(initial, jeton);
+        Optimiseur.reporter(initial, reseau, solutionOrigine);
+        double meilleurCoutGlobal = reseau.getCout();
+
+        if (verbeux) {
+            for (int niveau = 0; niveau + 1 < nbRepliques; niveau++) {
+                System.out.printf("  T=%.4f <-> T=%.4f : %d/%d échanges acceptés%n",
+                        temperatures[niveau], temperatures[niveau + 1],
+                        echangesAcceptes[niveau], tentativesEchange[niveau]);
+            }
+            long tempsTotal = System.currentTimeMillis() - debutTotal;
+            System.out.println("=== RESULTAT FINAL ===");
+            System.out.printf("Meilleur coût trouvé : %.6f%n", meilleurCoutGlobal);
+            System.out.printf("Temps total          : %d ms%n%n", tempsTotal);
+        }
+        return meilleurCoutGlobal;
+    }
+
+    /**
+     * Construit une échelle géométrique croissante de n températures :
+     * {@code T_i = min · (max / min)^(i / (n - 1))}.
+     *
+     * @param min la température du niveau 0
+     * @param max la température du niveau n - 1
+     * @param n le nombre de niveaux (au moins 2)
+     * @return les températures, de la plus froide à la plus chaude
+     */
+    static double[] echelleTemperatures(double min, double max, int n) {
+        double[] temperatures = new double[n];
+        double raison = Math.pow(max / min, 1.0 / (n - 1));
+        temperatures[0] = min;
+        for (int i = 1; i < n - 1; i++) {
+            temperatures[i] = temperatures[i - 1] * raison;
+        }
+        temperatures[n - 1] = max;
+        return temperatures;
+    }
+}
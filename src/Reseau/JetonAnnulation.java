@@ -0,0 +1,74 @@
+package reseau;
+
+/**
+ * Jeton d'annulation coopérative d'une optimisation, avec échéance optionnelle.
+ * <p>
+ * L'optimiseur consulte le jeton à chaque fenêtre du recuit, à chaque maison de la
+ * descente locale et de la construction gloutonne, et entre deux cycles ILS. Dès que
+ * le jeton est annulé (explicitement ou parce que l'échéance est dépassée), il
+ * s'arrête et reporte sur le réseau la meilleure solution rencontrée.
+ * <p>
+ * Un même jeton peut être partagé entre plusieurs fils d'exécution.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public final class JetonAnnulation {
+
+    /** Annulation demandée (ou échéance constatée) */
+    private volatile boolean annule;
+
+    /** Échéance en temps {@link System#nanoTime()} (ignorée si {@code avecEcheance} est faux) */
+    private final long echeance;
+    private final boolean avecEcheance;
+
+    /**
+     * Crée un jeton sans échéance, annulable uniquement par {@link #annuler()}.
+     */
+    public JetonAnnulation() {
+        this.echeance = 0L;
+        this.avecEcheance = false;
+    }
+
+    private JetonAnnulation(long echeance) {
+        this.echeance = echeance;
+        this.avecEcheance = true;
+    }
+
+    /**
+     * Crée un jeton qui s'annule de lui-même après un délai.
+     *
+     * @param delaiMillis le délai en millisecondes, à partir de maintenant
+     * @return le jeton
+     * @throws IllegalArgumentException si le délai est négatif
+     */
+    public static JetonAnnulation avecDelai(long delaiMillis) {
+        if (delaiMillis < 0) {
+            throw new IllegalArgumentException("Le délai ne peut pas être négatif.");
+        }
+        return new JetonAnnulation(System.nanoTime() + delaiMillis * 1_000_000L);
+    }
+
+    /**
+     * Demande l'arrêt de l'optimisation au plus tôt.
+     */
+    public void annuler() {
+        annule = true;
+    }
+
+    /**
+     * Indique si l'optimisation doit s'arrêter.
+     *
+     * @return true si le jeton a été annulé ou si son échéance est dépassée
+     */
+    public boolean estAnnule() {
+        if (annule) {
+            return true;
+        }
+        if (avecEcheance && System.nanoTime() - echeance >= 0) {
+            annule = true;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,152 @@
+package reseau;
+
+import java.util.Arrays;
+
+/**
+ * Index inverse générateur → maisons, sur identifiants denses.
+ * <p>
+ * Chaque générateur possède un ensemble d'entiers (tableau + taille) et chaque
+ * maison mémorise son générateur et sa position dans cet ensemble. Ajout,
+ * retrait et test d'appartenance sont en O(1) ; le parcours et le comptage
+ * des maisons d'un générateur sont proportionnels à leur nombre, indépendamment
+ * de la taille du réseau.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class MaisonsParGenerateur {
+
+    /** Maisons de chaque générateur (seules les {@code tailles[g]} premières cases sont valides) */
+    private int[][] membres;
+
+    /** Nombre de maisons de chaque générateur */
+    private int[] tailles;
+
+    /** Générateur de chaque maison (-1 si non connectée) */
+    private int[] proprietaire;
+
+    /** Position de chaque maison dans l'ensemble de son générateur */
+    private int[] position;
+
+    /** Nombre de générateurs et de maisons enregistrés */
+    private int nbGenerateurs;
+    private int nbMaisons;
+
+    /**
+     * Crée un index vide.
+     *
+     * @param generateursPrevus nombre de générateurs prévus
+     * @param maisonsPrevues nombre de maisons prévues
+     */
+    MaisonsParGenerateur(int generateursPrevus, int maisonsPrevues) {
+        membres = new int[Math.max(4, generateursPrevus)][];
+        tailles = new int[membres.length];
+        proprietaire = new int[Math.max(4, maisonsPrevues)];
+        position = new int[proprietaire.length];
+    }
+
+    /**
+     * Enregistre un nouveau générateur, d'identifiant égal au nombre de générateurs déjà enregistrés.
+     */
+    void ajouterGenerateur() {
+        if (nbGenerateurs == membres.length) {
+            membres = Arrays.copyOf(membres, membres.length * 2);
+            tailles = Arrays.copyOf(tailles, membres.length);
+        }
+        membres[nbGenerateurs] = new int[4];
+        tailles[nbGenerateurs] = 0;
+        nbGenerateurs++;
+    }
+
+    /**
+     * Enregistre une nouvelle maison non connectée, d'identifiant égal au nombre de maisons déjà enregistrées.
+     */
+    void ajouterMaison() {
+        if (nbMaisons == proprietaire.length) {
+            proprietaire = Arrays.copyOf(proprietaire, proprietaire.length * 2);
+            position = Arrays.copyOf(position, proprietaire.length);
+        }
+        proprietaire[nbMaisons] = -1;
+        nbMaisons++;
+    }
+
+    /**
+     * Rattache une maison à un générateur, en la retirant de son générateur précédent.
+     *
+     * @param maison l'identifiant de la maison
+     * @param g l'identifiant du générateur, ou -1 pour la déconnecter
+     */
+    void affecter(int maison, int g) {
+        int ancien = proprietaire[maison];
+        if (ancien == g) {
+            return;
+        }
+        if (ancien >= 0) {
+            int[] ensemble = membres[ancien];
+            int dernier = ensemble[--tailles[ancien]];
+            int pos = position[maison];
+            ensemble[pos] = dernier;
+            position[dernier] = pos;
+        }
+        proprietaire[maison] = g;
+        if (g >= 0) {
+            int[] ensemble = membres[g];
+            if (tailles[g] == ensemble.length) {
+                ensemble = Arrays.copyOf(ensemble, ensemble.length * 2);
+                membres[g] = ensemble;
+            }
+            position[maison] = tailles[g];
+            ensemble[tailles[g]++] = maison;
+        }
+    }
+
+    /**
+     * Retourne le nombre de maisons connectées à un générateur.
+     *
+     * @param g l'identifiant du générateur
+     * @return le nombre de maisons
+     */
+    int taille(int g) {
+        return tailles[g];
+    }
+
+    /**
+     * Retourne la i-ème maison d'un générateur (ordre quelconque).
+     *
+     * @param g l'identifiant du générateur
+     * @param i un rang entre 0 et {@code taille(g) - 1}
+     * @return l'identifiant de la maison
+     */
+    int maison(int g, int i) {
+        return membres[g][i];
+    }
+
+    /**
+     * Retourne le générateur auquel une maison est rattachée.
+     *
+     * @param maison l'identifiant de la maison
+     * @return l'identifiant du générateur, ou -1 si la maison n'est pas connectée
+     */
+    int generateur(int maison) {
+        return proprietaire[maison];
+    }
+
+    /**
+     * Crée une copie indépendante de l'index.
+     *
+     * @return la copie
+     */
+    MaisonsParGenerateur copie() {
+        MaisonsParGenerateur c = new MaisonsParGenerateur(0, 0);
+        c.membres = new int[membres.length][];
+        for (int g = 0; g < nbGenerateurs; g++) {
+            c.membres[g] = membres[g].clone();
+        }
+        c.tailles = tailles.clone();
+        c.proprietaire = proprietaire.clone();
+        c.position = position.clone();
+        c.nbGenerateurs = nbGenerateurs;
+        c.nbMaisons = nbMaisons;
+        return c;
+    }
+}
@@ -0,0 +1,586 @@
+package reseau;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Représentation compacte d'un réseau pour les algorithmes d'optimisation.
+ * <p>
+ * Les maisons et les générateurs sont identifiés par des entiers denses et
+ * l'état est stocké dans des tableaux primitifs :
+ * <ul>
+ * <li>{@code affectation[maison]} : indice du générateur de la maison (-1 si non connectée)</li>
+ * <li>{@code charge[generateur]} et {@code capacite[generateur]} en kW</li>
+ * <li>{@code classeConsommation[maison]} : ordinal de {@link Consommation}</li>
+ * </ul>
+ * Les taux d'utilisation sont indexés dans un {@link ArbreUtilisations}, pondérés par
+ * le nombre de maisons de chaque générateur, si bien que l'évaluation d'un mouvement,
+ * le coût courant et le tirage d'une maison selon le taux de son générateur s'obtiennent
+ * en O(log G), sans table de hachage ni allocation. La conversion depuis et vers {@link Reseau}
+ * n'a lieu qu'aux extrémités d'une optimisation.
+ * <p>
+ * Un journal optionnel mémorise, depuis le dernier point de contrôle, le générateur
+ * d'origine de chaque maison déplacée : revenir au point de contrôle ne coûte que le
+ * nombre de maisons touchées, et valider un nouveau point de contrôle est en O(1).
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class NoyauReseau {
+
+    /** Consommation en kW de chaque classe, indexée par ordinal de {@link Consommation} */
+    private static final int[] CONSOMMATIONS = consommationsParClasse();
+
+    /** Maisons d'origine, indexées par identifiant dense */
+    private final Maison[] maisons;
+
+    /** Générateurs d'origine, indexés par identifiant dense */
+    private final Generateur[] generateurs;
+
+    /** Générateur de chaque maison (-1 si non connectée) */
+    private final int[] affectation;
+
+    /** Classe de consommation de chaque maison */
+    private final byte[] classeConsommation;
+
+    /** Charge actuelle de chaque générateur en kW */
+    private final int[] charge;
+
+    /** Capacité de chaque générateur en kW */
+    private final int[] capacite;
+
+    /** Coefficient de pénalité appliqué aux surcharges */
+    private final double penalite;
+
+    /** Index des taux d'utilisation des générateurs */
+    private final ArbreUtilisations utilisations;
+
+    /** Index inverse générateur → maisons */
+    private final MaisonsParGenerateur maisonsParGenerateur;
+
+    /** Maisons déplacées depuis le point de contrôle, et leur générateur à ce point */
+    private int[] journalMaisons;
+    private int[] journalGenerateurs;
+    private int tailleJournal;
+
+    /** Époque du point de contrôle auquel chaque maison a été journalisée */
+    private int[] epoqueJournal;
+
+    /** Époque du point de contrôle courant (0 : journal fermé) */
+    private int epoque;
+
+    /** Maisons déplacées depuis la construction ou le dernier report sur le réseau */
+    private final boolean[] modifiee;
+    private final int[] maisonsModifiees;
+    private int nombreModifiees;
+
+    private NoyauReseau(Maison[] maisons, Generateur[] generateurs, double penalite) {
+        this.maisons = maisons;
+        this.generateurs = generateurs;
+        this.penalite = penalite;
+        this.affectation = new int[maisons.length];
+        this.classeConsommation = new byte[maisons.length];
+        this.charge = new int[generateurs.length];
+        this.capacite = new int[generateurs.length];
+        this.utilisations = new ArbreUtilisations(generateurs.length);
+        this.maisonsParGenerateur = new MaisonsParGenerateur(generateurs.length, maisons.length);
+        this.modifiee = new boolean[maisons.length];
+        this.maisonsModifiees = new int[maisons.length];
+    }
+
+    /**
+     * Constructeur de copie : l'état modifiable est dupliqué, les données
+     * immuables (maisons, générateurs, classes, capacités) sont partagées.
+     */
+    private NoyauReseau(NoyauReseau source) {
+        this.maisons = source.maisons;
+        this.generateurs = source.generateurs;
+        this.penalite = source.penalite;
+        this.affectation = source.affectation.clone();
+        this.classeConsommation = source.classeConsommation;
+        this.charge = source.charge.clone();
+        this.capacite = source.capacite;
+        this.utilisations = source.utilisations.copie();
+        this.maisonsParGenerateur = source.maisonsParGenerateur.copie();
+        this.modifiee = source.modifiee.clone();
+        this.maisonsModifiees = source.maisonsModifiees.clone();
+        this.nombreModifiees = source.nombreModifiees;
+    }
+
+    /**
+     * Crée une copie indépendante du noyau, utilisable par un autre fil d'exécution.
+     *
+     * @return la copie
+     */
+    NoyauReseau copie() {
+        return new NoyauReseau(this);
+    }
+
+    /**
+     * Construit le noyau correspondant à l'état courant d'un réseau.
+     *
+     * @param reseau le réseau source
+     * @return le noyau équivalent
+     */
+    static NoyauReseau depuis(Reseau reseau) {
+        List<Generateur> listeGenerateurs = reseau.getGenerateurs();
+        NoyauReseau noyau = new NoyauReseau(reseau.getMaisonsParId().toArray(new Maison[0]),
+                listeGenerateurs.toArray(new Generateur[0]), reseau.getPenalite());
+
+        for (int g = 0; g < noyau.generateurs.length; g++) {
+            noyau.capacite[g] = noyau.generateurs[g].getCapacite();
+            noyau.maisonsParGenerateur.ajouterGenerateur();
+        }
+        int[] instantane = reseau.getInstantane();
+        for (int m = 0; m < noyau.maisons.length; m++) {
+            Maison maison = noyau.maisons[m];
+            noyau.classeConsommation[m] = (byte) classeDe(maison.getConsommation());
+            int id = instantane[m];
+            noyau.affectation[m] = id;
+            noyau.maisonsParGenerateur.ajouterMaison();
+            noyau.maisonsParGenerateur.affecter(m, id);
+            if (id >= 0) {
+                noyau.charge[id] += maison.getConsommation();
+            }
+        }
+        for (int g = 0; g < noyau.generateurs.length; g++) {
+            noyau.utilisations.inserer(g, noyau.taux(g), noyau.maisonsParGenerateur.taille(g));
+        }
+        return noyau;
+    }
+
+    /**
+     * Reporte les connexions du noyau sur le réseau d'origine, puis recalcule son coût.
+     * <p>
+     * Les identifiants denses du noyau étant ceux du réseau, l'affectation est un
+     * instantané du réseau : seules les maisons déplacées depuis la construction du noyau
+     * (ou le report précédent) sont examinées, et parmi elles celles dont le générateur
+     * diffère sont modifiées (voir {@link Reseau#restaurerInstantane(int[], int[], int)}).
+     *
+     * @param reseau le réseau à partir duquel le noyau a été construit
+     */
+    void appliquer(Reseau reseau) {
+        reseau.restaurerInstantane(affectation, maisonsModifiees, nombreModifiees);
+        for (int i = 0; i < nombreModifiees; i++) {
+            modifiee[maisonsModifiees[i]] = false;
+        }
+        nombreModifiees = 0;
+    }
+
+    /**
+     * Retourne le nombre de maisons.
+     *
+     * @return le nombre de maisons
+     */
+    int nombreMaisons() {
+        return maisons.length;
+    }
+
+    /**
+     * Retourne le nombre de générateurs.
+     *
+     * @return le nombre de générateurs
+     */
+    int nombreGenerateurs() {
+        return generateurs.length;
+    }
+
+    /**
+     * Retourne le générateur d'une maison.
+     *
+     * @param maison l'identifiant de la maison
+     * @return l'identifiant du générateur, ou -1 si la maison n'est pas connectée
+     */
+    int generateur(int maison) {
+        return affectation[maison];
+    }
+
+    /**
+     * Retourne la consommation d'une maison.
+     *
+     * @param maison l'identifiant de la maison
+     * @return la consommation en kW
+     */
+    int consommation(int maison) {
+        return CONSOMMATIONS[classeConsommation[maison]];
+    }
+
+    /**
+     * Retourne la classe de consommation d'une maison.
+     *
+     * @param maison l'identifiant de la maison
+     * @return l'ordinal de sa {@link Consommation}
+     */
+    int classe(int maison) {
+        return classeConsommation[maison];
+    }
+
+    /**
+     * Retourne la charge actuelle d'un générateur.
+     *
+     * @param g l'identifiant du générateur
+     * @return la charge en kW
+     */
+    int charge(int g) {
+        return charge[g];
+    }
+
+    /**
+     * Retourne la capacité d'un générateur.
+     *
+     * @param g l'identifiant du générateur
+     * @return la capacité en kW
+     */
+    int capacite(int g) {
+        return capacite[g];
+    }
+
+    /**
+     * Retourne le nombre de maisons connectées à un générateur, en O(1).
+     *
+     * @param g l'identifiant du générateur
+     * @return le nombre de maisons
+     */
+    int nombreMaisonsDe(int g) {
+        return maisonsParGenerateur.taille(g);
+    }
+
+    /**
+     * Retourne la i-ème maison connectée à un générateur (ordre quelconque).
+     *
+     * @param g l'identifiant du générateur
+     * @param i un rang entre 0 et {@code nombreMaisonsDe(g) - 1}
+     * @return l'identifiant de la maison
+     */
+    int maisonDe(int g, int i) {
+        return maisonsParGenerateur.maison(g, i);
+    }
+
+    /**
+     * Retourne le taux d'utilisation d'un générateur.
+     *
+     * @param g l'identifiant du générateur
+     * @return le taux d'utilisation (0.0 si capacité nulle)
+     */
+    double taux(int g) {
+        return Reseau.taux(charge[g], capacite[g]);
+    }
+
+    /**
+     * Retourne le taux d'utilisation moyen des générateurs.
+     *
+     * @return le taux moyen
+     */
+    double tauxMoyen() {
+        return utilisations.somme() / generateurs.length;
+    }
+
+    /**
+     * Compte en O(log G) les maisons reliées à un générateur dont le taux d'utilisation
+     * est strictement hors de [bas, haut] (toutes les maisons connectées si bas &gt; haut).
+     *
+     * @param bas la borne basse de la bande
+     * @param haut la borne haute de la bande
+     * @return le nombre de maisons hors de la bande
+     */
+    long nombreMaisonsHorsBande(double bas, double haut) {
+        if (bas > haut) {
+            return utilisations.poidsTotal();
+        }
+        return utilisations.poidsInferieurA(bas) + utilisations.poidsSuperieurA(haut);
+    }
+
+    /**
+     * Retourne en O(log G) la maison de rang donné parmi celles comptées par
+     * {@link #nombreMaisonsHorsBande(double, double)} (ordre quelconque mais déterministe).
+     *
+     * @param rang un rang entre 0 et {@code nombreMaisonsHorsBande(bas, haut) - 1}
+     * @param bas la borne basse de la bande
+     * @param haut la borne haute de la bande
+     * @return l'identifiant de la maison
+     */
+    int maisonHorsBande(long rang, double bas, double haut) {
+        long rangGlobal = rang;
+        if (bas <= haut) {
+            long avant = utilisations.poidsInferieurA(bas);
+            if (rang >= avant) {
+                // on saute les maisons des générateurs situés dans la bande
+                long apres = utilisations.poidsSuperieurA(haut);
+                rangGlobal += utilisations.poidsTotal() - avant - apres;
+            }
+        }
+        int g = utilisations.elementDeRangPondere(rangGlobal);
+        return maisonsParGenerateur.maison(g, (int) utilisations.rangResiduel());
+    }
+
+    /**
+     * Retourne en O(log G) le générateur suivant la position (taux, g) dans l'ordre des taux
+     * croissants (puis des indices). Avec {@code g = -1}, c'est le premier générateur de taux
+     * supérieur ou égal à {@code taux}.
+     *
+     * @param taux le taux de la position
+     * @param g l'indice de la position
+     * @return l'identifiant du générateur, ou -1 s'il n'y en a aucun
+     */
+    int generateurSuivant(double taux, int g) {
+        return utilisations.suivant(taux, g);
+    }
+
+    /**
+     * Retourne en O(log G) le générateur précédant la position (taux, g) dans l'ordre des taux
+     * croissants (puis des indices). Avec {@code g = -1}, c'est le dernier générateur de taux
+     * strictement inférieur à {@code taux}.
+     *
+     * @param taux le taux de la position
+     * @param g l'indice de la position
+     * @return l'identifiant du générateur, ou -1 s'il n'y en a aucun
+     */
+    int generateurPrecedent(double taux, int g) {
+        return utilisations.precedent(taux, g);
+    }
+
+    /**
+     * Retourne le coefficient de pénalité.
+     *
+     * @return le coefficient de pénalité
+     */
+    double penalite() {
+        return penalite;
+    }
+
+    /**
+     * Calcule le coût courant (dispersion + pénalité × surcharge) en O(log G).
+     *
+     * @return le coût courant
+     */
+    double cout() {
+        return utilisations.cout(penalite);
+    }
+
+    /**
+     * Évalue, sans l'appliquer, le déplacement d'une maison connectée vers un générateur.
+     *
+     * @param maison l'identifiant de la maison
+     * @param cible l'identifiant du générateur de destination
+     * @return coût après déplacement moins coût actuel
+     */
+    double deltaDeplacement(int maison, int cible) {
+        int source = affectation[maison];
+        if (source == cible) {
+            return 0.0;
+        }
+        int conso = consommation(maison);
+        return utilisations.variationCout(source, Reseau.taux(charge[source] - conso, capacite[source]),
+                cible, Reseau.taux(charge[cible] + conso, capacite[cible]), penalite);
+    }
+
+    /**
+     * Évalue, sans l'appliquer, l'échange des générateurs de deux maisons connectées.
+     *
+     * @param m1 l'identifiant de la première maison
+     * @param m2 l'identifiant de la seconde maison
+     * @return coût après échange moins coût actuel (0 si l'échange est neutre)
+     */
+    double deltaSwap(int m1, int m2) {
+        int g1 = affectation[m1];
+        int g2 = affectation[m2];
+        if (g1 < 0 || g2 < 0 || g1 == g2) {
+            return 0.0;
+        }
+        int difference = consommation(m2) - consommation(m1);
+        return utilisations.variationCout(g1, Reseau.taux(charge[g1] + difference, capacite[g1]),
+                g2, Reseau.taux(charge[g2] - difference, capacite[g2]), penalite);
+    }
+
+    /**
+     * Connecte une maison à un générateur, en la déconnectant de son générateur actuel.
+     *
+     * @param maison l'identifiant de la maison
+     * @param cible l'identifiant du générateur de destination, ou -1 pour déconnecter
+     */
+    void changeConnexion(int maison, int cible) {
+        int source = affectation[maison];
+        if (source == cible) {
+            return;
+        }
+        if (epoque != 0 && epoqueJournal[maison] != epoque) {
+            // premier déplacement depuis le point de contrôle : on note le générateur d'origine
+            epoqueJournal[maison] = epoque;
+            journalMaisons[tailleJournal] = maison;
+            journalGenerateurs[tailleJournal] = source;
+            tailleJournal++;
+        }
+        if (!modifiee[maison]) {
+            modifiee[maison] = true;
+            maisonsModifiees[nombreModifiees++] = maison;
+        }
+        int conso = consommation(maison);
+        affectation[maison] = cible;
+        maisonsParGenerateur.affecter(maison, cible);
+        if (source >= 0) {
+            charge[source] -= conso;
+            utilisations.mettreAJour(source, taux(source), maisonsParGenerateur.taille(source));
+        }
+        if (cible >= 0) {
+            charge[cible] += conso;
+            utilisations.mettreAJour(cible, taux(cible), maisonsParGenerateur.taille(cible));
+        }
+    }
+
+    /**
+     * Échange les générateurs de deux maisons connectées.
+     *
+     * @param m1 l'identifiant de la première maison
+     * @param m2 l'identifiant de la seconde maison
+     */
+    void swap(int m1, int m2) {
+        int g1 = affectation[m1];
+        int g2 = affectation[m2];
+        changeConnexion(m1, g2);
+        changeConnexion(m2, g1);
+    }
+
+    /**
+     * Ouvre le journal des déplacements : l'état courant devient le point de contrôle.
+     */
+    void ouvrirJournal() {
+        if (journalMaisons == null) {
+            journalMaisons = new int[maisons.length];
+            journalGenerateurs = new int[maisons.length];
+            epoqueJournal = new int[maisons.length];
+        }
+        nouvelleEpoque();
+    }
+
+    /**
+     * Fait de l'état courant le nouveau point de contrôle, en O(1).
+     *
+     * @throws IllegalStateException si le journal n'est pas ouvert
+     */
+    void validerJournal() {
+        verifierJournalOuvert();
+        nouvelleEpoque();
+    }
+
+    /**
+     * Revient au point de contrôle en replaçant les seules maisons déplacées depuis,
+     * en O(k log G) pour k maisons touchées. Le journal reste ouvert.
+     *
+     * @throws IllegalStateException si le journal n'est pas ouvert
+     */
+    void annulerJournal() {
+        verifierJournalOuvert();
+        int epoqueCourante = epoque;
+        epoque = 0; // les déplacements de retour ne sont pas journalisés
+        for (int i = tailleJournal - 1; i >= 0; i--) {
+            changeConnexion(journalMaisons[i], journalGenerateurs[i]);
+        }
+        epoque = epoqueCourante;
+        nouvelleEpoque();
+    }
+
+    /**
+     * Ferme le journal : les déplacements suivants ne sont plus mémorisés.
+     */
+    void fermerJournal() {
+        epoque = 0;
+        tailleJournal = 0;
+    }
+
+    /**
+     * Retourne le nombre de maisons déplacées depuis le point de contrôle.
+     *
+     * @return la taille du journal (0 s'il est fermé)
+     */
+    int tailleJournal() {
+        return tailleJournal;
+    }
+
+    private void nouvelleEpoque() {
+        tailleJournal = 0;
+        epoque++;
+        if (epoque == 0) {
+            // dépassement après 2^32 points de contrôle : on repart d'un marquage vierge
+            Arrays.fill(epoqueJournal, 0);
+            epoque = 1;
+        }
+    }
+
+    private void verifierJournalOuvert() {
+        if (epoque == 0) {
+            throw new IllegalStateException("Le journal des déplacements n'est pas ouvert.");
+        }
+    }
+
+    /**
+     * Copie l'affectation courante de toutes les maisons.
+     *
+     * @return un nouveau tableau maison → générateur
+     */
+    int[] copierAffectation() {
+        return Arrays.copyOf(affectation, affectation.length);
+    }
+
+    /**
+     * Copie l'affectation courante dans un tableau existant, sans allocation.
+     *
+     * @param destination un tableau d'au moins {@link #nombreMaisons()} cases
+     */
+    void copierAffectation(int[] destination) {
+        System.arraycopy(affectation, 0, destination, 0, affectation.length);
+    }
+
+    /**
+     * Ramène le noyau à une affectation mémorisée en ne déplaçant que les maisons
+     * dont le générateur diffère.
+     *
+     * @param solution l'affectation maison → générateur à rétablir
+     */
+    void restaurerAffectation(int[] solution) {
+        for (int m = 0; m < affectation.length; m++) {
+            if (affectation[m] != solution[m]) {
+                changeConnexion(m, solution[m]);
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre de classes de consommation.
+     *
+     * @return le nombre de valeurs de {@link Consommation}
+     */
+    static int nombreClasses() {
+        return CONSOMMATIONS.length;
+    }
+
+    /**
+     * Retourne la consommation des maisons d'une classe.
+     *
+     * @param classe l'ordinal de {@link Consommation}
+     * @return la consommation en kW
+     */
+    static int consommationDeClasse(int classe) {
+        return CONSOMMATIONS[classe];
+    }
+
+    /**
+     * Retrouve l'ordinal de {@link Consommation} correspondant à une consommation en kW.
+     */
+    private static int classeDe(int consommation) {
+        for (int c = 0; c < CONSOMMATIONS.length; c++) {
+            if (CONSOMMATIONS[c] == consommation) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("Consommation inconnue : " + consommation);
+    }
+
+    private static int[] consommationsParClasse() {
+        Consommation[] valeurs = Consommation.values();
+        int[] resultat = new int[valeurs.length];
+        for (int c = 0; c < valeurs.length; c++) {
+            resultat[c] = valeurs[c].getConsommation();
+        }
+        return resultat;
+    }
+}
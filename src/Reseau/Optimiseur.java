@@ -0,0 +1,1170 @@
+package reseau;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optimiseur du réseau électrique par algorithme hybride (ILS + recuit simulé adaptatif + descente).
+ * <p>
+ * Chaque instance possède son propre générateur pseudo-aléatoire, sa propre copie des
+ * {@link ParametresOptimisation} et ses tampons de travail : plusieurs optimiseurs
+ * peuvent résoudre des réseaux différents en même temps dans la même JVM, sans état
+ * partagé. Une instance n'est en revanche pas prévue pour être utilisée par plusieurs
+ * fils à la fois : on crée un optimiseur par résolution concurrente.
+ * <p>
+ * Les phases travaillent sur un {@link NoyauReseau} (identifiants entiers et tableaux
+ * primitifs) ; le {@link Reseau} n'est lu qu'au début et mis à jour qu'à la fin.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public class Optimiseur {
+
+    /** Paramètres de l'algorithme (copie privée) */
+    private final ParametresOptimisation parametres;
+
+    /** Générateur pseudo-aléatoire propre à cet optimiseur */
+    private final SplittableRandom random;
+
+    /** Tampons des permutations aléatoires (maisons, générateurs), réutilisés d'un appel à l'autre */
+    private int[] permutationMaisons = new int[0];
+    private int[] permutationGenerateurs = new int[0];
+
+    /** Appartenance de chaque maison à la file de la descente locale */
+    private boolean[] dansFile = new boolean[0];
+
+    /** Précision en dessous de laquelle un coût égal à la borne inférieure est considéré optimal */
+    private static final double PRECISION_OPTIMUM = 1e-9;
+
+    /**
+     * Coût en dessous duquel la résolution en cours s'arrête (borne inférieure + écart toléré),
+     * -∞ en dehors de {@link #resoudre(Reseau, JetonAnnulation)}
+     */
+    private double coutCible = Double.NEGATIVE_INFINITY;
+
+    /** Trace du recuit, null si désactivée */
+    private final TraceRecuit trace;
+
+    /** Tampons du top 3 des générateurs cibles */
+    private final int[] meilleurs = new int[3];
+    private final double[] scores = new double[3];
+
+    /**
+     * Crée un optimiseur avec les paramètres par défaut.
+     */
+    public Optimiseur() {
+        this(new ParametresOptimisation());
+    }
+
+    /**
+     * Crée un optimiseur avec des paramètres donnés.
+     *
+     * @param parametres les paramètres de l'algorithme (copiés)
+     */
+    public Optimiseur(ParametresOptimisation parametres) {
+        this(parametres, new SplittableRandom());
+    }
+
+    /**
+     * Crée un optimiseur reproductible : à graine et paramètres égaux, les
+     * résolutions séquentielles d'un même réseau donnent le même résultat.
+     *
+     * @param parametres les paramètres de l'algorithme (copiés)
+     * @param graine la graine du générateur pseudo-aléatoire
+     */
+    public Optimiseur(ParametresOptimisation parametres, long graine) {
+        this(parametres, new SplittableRandom(graine));
+    }
+
+    Optimiseur(ParametresOptimisation parametres, SplittableRandom random) {
+        if (parametres == null) {
+            throw new IllegalArgumentException("Les paramètres d'optimisation ne peuvent pas être null.");
+        }
+        this.parametres = new ParametresOptimisation(parametres);
+        this.random = random;
+        this.trace = parametres.getTailleTrace() > 0 ? new TraceRecuit(parametres.getTailleTrace()) : null;
+    }
+
+    /**
+     * Retourne la trace des recuits de cet optimiseur (voir
+     * {@link ParametresOptimisation#setTailleTrace(int)}). Elle s'accumule d'une résolution
+     * à l'autre ; les recuits des fils du mode parallèle ne sont pas tracés.
+     *
+     * @return la trace, ou null si elle est désactivée
+     */
+    public TraceRecuit getTrace() {
+        return trace;
+    }
+
+    /**
+     * Retourne une copie des paramètres de cet optimiseur.
+     *
+     * @return les paramètres
+     */
+    public ParametresOptimisation getParametres() {
+        return new ParametresOptimisation(parametres);
+    }
+
+    /**
+     * Optimise le réseau : solution gloutonne, recuit + descente, puis cycles ILS.
+     *
+     * @param reseau le réseau à optimiser
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     */
+    public double optimiser(Reseau reseau) {
+        return optimiser(reseau, new JetonAnnulation());
+    }
+
+    /**
+     * Optimise le réseau en au plus {@code delaiMillis} millisecondes environ
+     * (hors conversion du réseau), puis y reporte la meilleure solution rencontrée.
+     *
+     * @param reseau le réseau à optimiser
+     * @param delaiMillis le budget de temps en millisecondes
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     * @throws IllegalArgumentException si le délai est négatif
+     */
+    public double optimiser(Reseau reseau, long delaiMillis) {
+        return optimiser(reseau, JetonAnnulation.avecDelai(delaiMillis));
+    }
+
+    /**
+     * Optimise le réseau jusqu'à la fin de l'algorithme ou l'annulation du jeton
+     * (voir {@link #resoudre(Reseau, JetonAnnulation)}).
+     *
+     * @param reseau le réseau à optimiser
+     * @param jeton le jeton d'annulation
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     */
+    public double optimiser(Reseau reseau, JetonAnnulation jeton) {
+        return resoudre(reseau, jeton).getCout();
+    }
+
+    /**
+     * Optimise le réseau et retourne le coût atteint avec une borne inférieure de l'optimum.
+     *
+     * @param reseau le réseau à optimiser
+     * @return le résultat (le réseau est laissé dans la configuration correspondante)
+     */
+    public ResultatOptimisation resoudre(Reseau reseau) {
+        return resoudre(reseau, new JetonAnnulation());
+    }
+
+    /**
+     * Optimise le réseau jusqu'à la fin de l'algorithme, l'annulation du jeton ou
+     * l'atteinte de la borne inférieure.
+     * <p>
+     * Une borne inférieure du coût ({@link BorneInferieure}) est calculée au départ ;
+     * toutes les phases s'arrêtent dès que le coût courant est à moins de
+     * {@code ecartTolere} de cette borne. Le jeton est consulté dans la construction
+     * gloutonne, à chaque fenêtre du recuit, à chaque maison de la descente et entre
+     * deux cycles ILS. En cas d'arrêt, la meilleure solution rencontrée est reportée
+     * sur le réseau ; si la construction gloutonne elle-même est interrompue, la solution
+     * partielle est complétée par les connexions d'origine (voir
+     * {@code completerConstructionInterrompue}).
+     *
+     * @param reseau le réseau à optimiser
+     * @param jeton le jeton d'annulation
+     * @return le résultat (le réseau est laissé dans la configuration correspondante)
+     */
+    public ResultatOptimisation resoudre(Reseau reseau, JetonAnnulation jeton) {
+        boolean verbeux = parametres.isVerbeux();
+        if (verbeux) System.out.println("\n=== RESOLUTION AUTOMATIQUE (ILS + Recuit + Descente) ===\n");
+        long debutTotal = System.currentTimeMillis();
+
+        // Toute l'optimisation travaille sur la représentation compacte du réseau
+        NoyauReseau noyau = NoyauReseau.depuis(reseau);
+        int[] solutionOrigine = noyau.copierAffectation();
+
+        double borne = BorneInferieure.calculer(noyau);
+        if (verbeux) System.out.printf("Borne inférieure : %.6f%n%n", borne);
+
+        // A) Solution initiale
+        if (!construireSolutionInitiale(noyau, jeton)) {
+            if (verbeux) System.out.println("Optimisation interrompue pendant la construction initiale.");
+            completerConstructionInterrompue(solutionOrigine, noyau);
+            reporter(noyau, reseau, solutionOrigine);
+            afficherResultat(reseau.getCout(), debutTotal);
+            return new ResultatOptimisation(reseau.getCout(), borne, false);
+        }
+
+        coutCible = borne + parametres.getEcartTolere();
+        try {
+            return resoudreDepuisGlouton(reseau, noyau, solutionOrigine, borne, jeton, debutTotal);
+        } finally {
+            coutCible = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Suite de {@link #resoudre(Reseau, JetonAnnulation)} à partir de la solution gloutonne :
+     * résolution exacte des petits réseaux, puis recuit + descente et cycles ILS.
+     */
+    private ResultatOptimisation resoudreDepuisGlouton(Reseau reseau, NoyauReseau noyau, int[] solutionOrigine,
+                                                       double borne, JetonAnnulation jeton, long debutTotal) {
+        boolean verbeux = parametres.isVerbeux();
+        int nbRestarts = parametres.getNbRestarts();
+
+        // Petits réseaux : résolution exacte, l'ILS repart de sa meilleure solution si l'optimum n'est pas prouvé
+        if (!cibleAtteinte(noyau.cout()) && resolutionExacte(noyau, jeton)) {
+            reporter(noyau, reseau, solutionOrigine);
+            afficherResultat(reseau.getCout(), debutTotal);
+            return new ResultatOptimisation(reseau.getCout(), borne, true);
+        }
+        double meilleurCoutGlobal = noyau.cout();
+
+        // La meilleure solution est le point de contrôle du journal du noyau : chaque cycle
+        // est validé s'il l'améliore, sinon annulé en ne replaçant que les maisons touchées.
+        noyau.ouvrirJournal();
+
+        // B) Première optimisation
+        if (!cibleAtteinte(meilleurCoutGlobal)) {
+            recuitSimuleAdaptatif(noyau, jeton);
+            descenteLocale(noyau, jeton);
+        }
+
+        if (noyau.cout() < meilleurCoutGlobal) {
+            meilleurCoutGlobal = noyau.cout();
+            noyau.validerJournal();
+        } else {
+            noyau.annulerJournal();
+        }
+        if (verbeux) System.out.printf("Solution initiale optimisée : %.6f%n%n", meilleurCoutGlobal);
+
+        // D) ILS : perturbation + ré-optimisation
+        for (int restart = 1; restart < nbRestarts && !jeton.estAnnule() && !cibleAtteinte(meilleurCoutGlobal); restart++) {
+            if (verbeux) System.out.printf("--- ILS itération %d/%d ---%n", restart + 1, nbRestarts);
+
+            perturbationForte(noyau, parametres.getProportionPerturbation());
+            if (verbeux) System.out.printf("Après perturbation : %.6f%n", noyau.cout());
+
+            recuitSimuleAdaptatif(noyau, jeton);
+            if (verbeux) System.out.printf("Après recuit       : %.6f%n", noyau.cout());
+
+            descenteLocale(noyau, jeton);
+            double coutFinal = noyau.cout();
+            if (verbeux) System.out.printf("Après descente     : %.6f%n", coutFinal);
+
+            if (coutFinal < meilleurCoutGlobal) {
+                meilleurCoutGlobal = coutFinal;
+                noyau.validerJournal();
+                if (verbeux) System.out.println("Nouvelle meilleure solution.");
+            } else {
+                noyau.annulerJournal();
+                if (verbeux) System.out.println("Pas d'amélioration, retour à la meilleure.");
+            }
+            if (verbeux) System.out.println();
+        }
+
+        if (verbeux && cibleAtteinte(meilleurCoutGlobal)) System.out.println("Borne inférieure atteinte.");
+        else if (verbeux && jeton.estAnnule()) System.out.println("Optimisation interrompue (délai ou annulation).");
+
+        // Le noyau est au point de contrôle (best-so-far) : le reporter sur le réseau
+        noyau.fermerJournal();
+        reporter(noyau, reseau, solutionOrigine);
+        meilleurCoutGlobal = reseau.getCout();
+
+        ResultatOptimisation resultat = new ResultatOptimisation(meilleurCoutGlobal, borne,
+                meilleurCoutGlobal <= borne + PRECISION_OPTIMUM);
+        afficherResultat(meilleurCoutGlobal, debutTotal);
+        if (verbeux) System.out.printf("Borne inférieure     : %.6f (écart %.6f)%n%n", resultat.getBorneInferieure(), resultat.getEcart());
+        return resultat;
+    }
+
+    /**
+     * Indique si un coût est assez proche de la borne inférieure pour arrêter la résolution en cours.
+     */
+    private boolean cibleAtteinte(double cout) {
+        return cout <= coutCible;
+    }
+
+    /**
+     * ILS parallèle : redémarrages indépendants répartis sur plusieurs fils d'exécution.
+     * <p>
+     * Chaque fil utilise son propre optimiseur (flux aléatoire obtenu par
+     * {@link SplittableRandom#split()}, tampons propres) sur sa propre copie du noyau,
+     * et enchaîne {@code nbRestarts} cycles (restauration de la meilleure solution
+     * publiée, perturbation, recuit, descente). Le nombre total de cycles croît donc
+     * avec le nombre de fils. Les améliorations sont publiées sans verrou dans un
+     * {@link AtomicReference} (compare-and-set).
+     *
+     * @param reseau le réseau à optimiser
+     * @param nbFils le nombre de fils d'exécution
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     * @throws IllegalArgumentException si nbFils est inférieur à 1
+     */
+    public double optimiserParallele(Reseau reseau, int nbFils) {
+        return optimiserParallele(reseau, nbFils, new JetonAnnulation());
+    }
+
+    /**
+     * ILS parallèle interruptible : les fils consultent le même jeton (voir
+     * {@link #optimiser(Reseau, JetonAnnulation)}) et la meilleure solution publiée
+     * est reportée sur le réseau.
+     *
+     * @param reseau le réseau à optimiser
+     * @param nbFils le nombre de fils d'exécution
+     * @param jeton le jeton d'annulation, partagé par tous les fils
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     * @throws IllegalArgumentException si nbFils est inférieur à 1
+     */
+    public double optimiserParallele(Reseau reseau, int nbFils, JetonAnnulation jeton) {
+        if (nbFils < 1) {
+            throw new IllegalArgumentException("Le nombre de fils d'exécution doit être au moins 1.");
+        }
+        int nbRestarts = parametres.getNbRestarts();
+        if (parametres.isVerbeux()) {
+            System.out.printf("%n=== RESOLUTION PARALLELE (%d fils x %d cycles ILS) ===%n%n", nbFils, nbRestarts);
+        }
+        long debutTotal = System.currentTimeMillis();
+
+        NoyauReseau initial = NoyauReseau.depuis(reseau);
+        int[] solutionOrigine = initial.copierAffectation();
+        if (!construireSolutionInitiale(initial, jeton)) {
+            completerConstructionInterrompue(solutionOrigine, initial);
+            reporter(initial, reseau, solutionOrigine);
+            afficherResultat(reseau.getCout(), debutTotal);
+            return reseau.getCout();
+        }
+        double cible = BorneInferieure.calculer(initial) + parametres.getEcartTolere();
+        if (initial.cout() > cible && resolutionExacte(initial, jeton)) {
+            reporter(initial, reseau, solutionOrigine);
+            afficherResultat(reseau.getCout(), debutTotal);
+            return reseau.getCout();
+        }
+
+        AtomicReference<Solution> meilleure = new AtomicReference<>(
+                new Solution(initial.cout(), initial.copierAffectation()));
+
+        // les fils n'affichent rien : leurs traces s'entremêleraient
+        ParametresOptimisation parametresFils = new ParametresOptimisation(parametres);
+        parametresFils.setVerbeux(false);
+        parametresFils.setTailleTrace(0);
+
+        List<Callable<Void>> taches = new ArrayList<>(nbFils);
+        for (int f = 0; f < nbFils; f++) {
+            final boolean premier = f == 0;
+            final NoyauReseau noyau = initial.copie();
+            final Optimiseur fil = new Optimiseur(parametresFils, random.split());
+            fil.coutCible = cible;
+            taches.add(() -> {
+                for (int cycle = 0; cycle < nbRestarts && !jeton.estAnnule()
+                        && !fil.cibleAtteinte(meilleure.get().cout); cycle++) {
+                    fil.restaurerSolution(meilleure.get().affectation, noyau);
+                    // le tout premier cycle part de la solution gloutonne, comme en séquentiel
+                    if (!(premier && cycle == 0)) {
+                        fil.perturbationForte(noyau, parametresFils.getProportionPerturbation());
+                    }
+                    fil.recuitSimuleAdaptatif(noyau, jeton);
+                    fil.descenteLocale(noyau, jeton);
+                    publier(meilleure, noyau);
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executeur = Executors.newFixedThreadPool(nbFils);
+        try {
+            for (Future<Void> resultat : executeur.invokeAll(taches)) {
+                resultat.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'un fil d'optimisation", e.getCause());
+        } finally {
+            executeur.shutdownNow();
+        }
+
+        // Reporter la meilleure solution publiée sur le réseau
+        restaurerSolution(meilleure.get().affectation, initial);
+        reporter(initial, reseau, solutionOrigine);
+        double meilleurCoutGlobal = reseau.getCout();
+
+        afficherResultat(meilleurCoutGlobal, debutTotal);
+        return meilleurCoutGlobal;
+    }
+
+    /**
+     * Recuit par échange de répliques (voir {@link EchangeRepliques}) : {@code nbRepliques}
+     * chaînes à températures fixes, une par fil d'exécution, échangeant périodiquement
+     * leurs configurations.
+     *
+     * @param reseau le réseau à optimiser
+     * @param nbRepliques le nombre de répliques, au moins 2
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     * @throws IllegalArgumentException si nbRepliques est inférieur à 2
+     */
+    public double optimiserEchangeRepliques(Reseau reseau, int nbRepliques) {
+        return optimiserEchangeRepliques(reseau, nbRepliques, new JetonAnnulation());
+    }
+
+    /**
+     * Échange de répliques interruptible : le jeton est consulté entre deux tours
+     * d'échange et pendant la descente finale.
+     *
+     * @param reseau le réseau à optimiser
+     * @param nbRepliques le nombre de répliques, au moins 2
+     * @param jeton le jeton d'annulation
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     * @throws IllegalArgumentException si nbRepliques est inférieur à 2
+     */
+    public double optimiserEchangeRepliques(Reseau reseau, int nbRepliques, JetonAnnulation jeton) {
+        return new EchangeRepliques(parametres, random.split()).optimiser(reseau, nbRepliques, jeton);
+    }
+
+    /**
+     * Optimise le réseau sur les effectifs par classe de consommation (voir {@link SolveurClasses}) :
+     * la recherche ne dépend plus du nombre de maisons, puis les effectifs sont traduits en connexions.
+     *
+     * @param reseau le réseau à optimiser
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     */
+    public double optimiserParClasses(Reseau reseau) {
+        return optimiserParClasses(reseau, new JetonAnnulation());
+    }
+
+    /**
+     * Optimisation sur les effectifs par classe, interruptible (voir
+     * {@link #optimiser(Reseau, JetonAnnulation)}).
+     *
+     * @param reseau le réseau à optimiser
+     * @param jeton le jeton d'annulation
+     * @return le meilleur coût trouvé (le réseau est laissé dans cette configuration)
+     */
+    public double optimiserParClasses(Reseau reseau, JetonAnnulation jeton) {
+        if (parametres.isVerbeux()) System.out.println("\n=== RESOLUTION PAR EFFECTIFS DE CLASSES ===\n");
+        long debutTotal = System.currentTimeMillis();
+
+        NoyauReseau noyau = NoyauReseau.depuis(reseau);
+        int[] solutionOrigine = noyau.copierAffectation();
+        if (!construireSolutionInitiale(noyau, jeton)) {
+            completerConstructionInterrompue(solutionOrigine, noyau);
+        } else {
+            SolveurClasses solveur = new SolveurClasses(noyau, parametres, random.split());
+            solveur.optimiser(jeton);
+            solveur.appliquer(noyau);
+        }
+        reporter(noyau, reseau, solutionOrigine);
+
+        afficherResultat(reseau.getCout(), debutTotal);
+        return reseau.getCout();
+    }
+
+    /**
+     * Résout exactement le réseau par séparation et évaluation (voir {@link SolveurExact}),
+     * dans la limite du budget de nœuds des paramètres. Les réseaux dont les effectifs par
+     * classe dépassent {@link SolveurExact#COMBINAISONS_MAX} vecteurs sont refusés d'emblée.
+     *
+     * @param reseau le réseau à optimiser
+     * @return le coût optimal (le réseau est laissé dans cette configuration)
+     * @throws IllegalStateException si le réseau est trop grand, ou si l'optimalité n'a pas pu
+     *                               être prouvée dans le budget (le réseau n'est alors pas modifié)
+     */
+    public double optimiserExact(Reseau reseau) {
+        NoyauReseau noyau = NoyauReseau.depuis(reseau);
+        if (SolveurExact.combinaisons(noyau) > SolveurExact.COMBINAISONS_MAX) {
+            throw new IllegalStateException("Réseau trop grand pour la résolution exacte ("
+                    + noyau.nombreMaisons() + " maisons).");
+        }
+        construireSolutionInitiale(noyau, new JetonAnnulation());
+
+        SolveurExact exact = new SolveurExact(noyau, parametres.getBudgetNoeudsExact());
+        if (!exact.resoudre(noyau.cout(), new JetonAnnulation())) {
+            throw new IllegalStateException("Optimum non prouvé après " + exact.noeuds() + " nœuds.");
+        }
+        if (exact.aAmeliore()) {
+            exact.appliquer(noyau);
+        }
+        noyau.appliquer(reseau);
+        return reseau.getCout();
+    }
+
+    /**
+     * Tente la résolution exacte d'un petit réseau à partir de la solution gloutonne du noyau.
+     * La meilleure solution trouvée est reportée sur le noyau, même sans preuve d'optimalité.
+     *
+     * @return true si l'optimum est prouvé
+     */
+    private boolean resolutionExacte(NoyauReseau noyau, JetonAnnulation jeton) {
+        int taille = parametres.getTailleMaxExact();
+        if (noyau.nombreMaisons() > taille || noyau.nombreGenerateurs() > taille
+                || SolveurExact.combinaisons(noyau) > SolveurExact.COMBINAISONS_MAX) {
+            return false;
+        }
+
+        SolveurExact exact = new SolveurExact(noyau, parametres.getBudgetNoeudsExact());
+        boolean prouve = exact.resoudre(noyau.cout(), jeton);
+        if (exact.aAmeliore()) {
+            exact.appliquer(noyau);
+        }
+        if (parametres.isVerbeux()) {
+            System.out.printf(prouve ? "Optimum prouvé par séparation et évaluation (%d nœuds) : %.6f%n%n"
+                    : "Séparation et évaluation interrompue (%d nœuds), meilleure solution : %.6f%n%n",
+                    exact.noeuds(), noyau.cout());
+        }
+        return prouve;
+    }
+
+    /**
+     * Reporte la solution du noyau sur le réseau dans une transaction du réseau. Si
+     * l'affectation d'origine connectait toutes les maisons et coûtait moins, la transaction
+     * est annulée : le réseau retrouve ses connexions et ses indicateurs d'origine, ce qui
+     * arrive quand une recherche interrompue tôt part d'un réseau déjà bien réparti.
+     * Le noyau ne doit plus être reporté ensuite.
+     *
+     * @param noyau le noyau portant la solution trouvée
+     * @param reseau le réseau, encore dans son affectation d'origine
+     * @param solutionOrigine l'affectation d'origine du réseau
+     */
+    static void reporter(NoyauReseau noyau, Reseau reseau, int[] solutionOrigine) {
+        if (reseau.isTransactionEnCours()) {
+            noyau.appliquer(reseau);
+            return;
+        }
+        boolean origineComplete = true;
+        for (int g : solutionOrigine) {
+            if (g < 0) {
+                origineComplete = false;
+                break;
+            }
+        }
+        reseau.calculCout();
+        double coutOrigine = reseau.getCout();
+
+        reseau.debutTransaction();
+        noyau.appliquer(reseau);
+        if (origineComplete && reseau.getCout() > coutOrigine) {
+            reseau.annulerTransaction();
+        } else {
+            reseau.validerTransaction();
+        }
+    }
+
+    private void afficherResultat(double meilleurCoutGlobal, long debutTotal) {
+        if (!parametres.isVerbeux()) return;
+
+        long tempsTotal = System.currentTimeMillis() - debutTotal;
+        System.out.println("=== RESULTAT FINAL ===");
+        System.out.printf("Meilleur coût trouvé : %.6f%n", meilleurCoutGlobal);
+        System.out.printf("Temps total          : %d ms%n%n", tempsTotal);
+    }
+
+    /**
+     * Publie la solution courante du noyau si elle améliore la meilleure connue (sans verrou).
+     */
+    private static void publier(AtomicReference<Solution> meilleure, NoyauReseau noyau) {
+        double cout = noyau.cout();
+        Solution actuelle = meilleure.get();
+        if (cout >= actuelle.cout) return;
+
+        Solution candidate = new Solution(cout, noyau.copierAffectation());
+        while (cout < actuelle.cout && !meilleure.compareAndSet(actuelle, candidate)) {
+            actuelle = meilleure.get();
+        }
+    }
+
+    /**
+     * Solution immuable partagée entre fils : coût et affectation maison → générateur.
+     */
+    private static final class Solution {
+        final double cout;
+        final int[] affectation;
+
+        Solution(double cout, int[] affectation) {
+            this.cout = cout;
+            this.affectation = affectation;
+        }
+    }
+
+    /**
+     * Construction initiale gloutonne : maisons triées par consommation décroissante,
+     * puis affectation au générateur maximisant un score (capacité restante, sous-utilisation, pénalité surcharge).
+     * <p>
+     * Les générateurs pouvant recevoir la maison sont rangés dans un arbre par score
+     * décroissant (clé {@code -score}, égalités départagées par le plus petit indice, comme
+     * le parcours linéaire) : chaque maison coûte O(log G). Les clés ne sont recalculées
+     * en bloc qu'au changement de consommation, soit au plus une fois par classe ; un
+     * générateur devenu trop chargé reçoit la clé +∞. Si aucun générateur ne peut recevoir
+     * la maison, le choix se fait par le parcours linéaire de {@code trouverMeilleurGenerateur}.
+     *
+     * @return false si le jeton a interrompu la construction (affectation partielle)
+     */
+    boolean construireSolutionInitiale(NoyauReseau noyau, JetonAnnulation jeton) {
+        int nbMaisons = noyau.nombreMaisons();
+        int nbGenerateurs = noyau.nombreGenerateurs();
+
+        // Tri stable par consommation décroissante
+        Integer[] ordre = new Integer[nbMaisons];
+        for (int m = 0; m < nbMaisons; m++) ordre[m] = m;
+        Arrays.sort(ordre, (m1, m2) -> Integer.compare(noyau.consommation(m2), noyau.consommation(m1)));
+
+        // Supprime toutes les connexions existantes
+        for (int m = 0; m < nbMaisons; m++) {
+            noyau.changeConnexion(m, -1);
+        }
+
+        ArbreUtilisations scores = new ArbreUtilisations(nbGenerateurs);
+        for (int g = 0; g < nbGenerateurs; g++) {
+            scores.inserer(g, Double.POSITIVE_INFINITY);
+        }
+
+        // Assigne toutes les maisons
+        int consoCourante = -1;
+        for (int m : ordre) {
+            if (jeton.estAnnule()) return false;
+
+            int conso = noyau.consommation(m);
+            if (conso != consoCourante) {
+                consoCourante = conso;
+                for (int g = 0; g < nbGenerateurs; g++) {
+                    scores.mettreAJour(g, cleScore(g, conso, noyau));
+                }
+            }
+
+            int meilleur = scores.suivant(Double.NEGATIVE_INFINITY, -1);
+            if (meilleur < 0 || scores.valeur(meilleur) == Double.POSITIVE_INFINITY) {
+                meilleur = trouverMeilleurGenerateur(m, noyau);
+            }
+            if (meilleur >= 0) {
+                noyau.changeConnexion(m, meilleur);
+                scores.mettreAJour(meilleur, cleScore(meilleur, conso, noyau));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clé d'un générateur dans l'arbre des scores de la construction gloutonne :
+     * l'opposé du score de {@code trouverMeilleurGenerateur}, ou +∞ si le générateur
+     * ne peut pas recevoir une maison de cette consommation sans dépassement.
+     */
+    private static double cleScore(int g, int conso, NoyauReseau noyau) {
+        int charge = noyau.charge(g);
+        double capaciteRestante = noyau.capacite(g) - charge;
+        double taux = (double) charge / noyau.capacite(g);
+        double score = capaciteRestante * (1.0 - taux);
+        if (capaciteRestante < conso || Double.isNaN(score)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -score;
+    }
+
+    /**
+     * Reprend une construction gloutonne interrompue : les maisons déjà placées gardent
+     * leur générateur, les autres retrouvent celui de la solution d'origine. L'affectation
+     * d'origine est rétablie si elle coûte moins à nombre égal de maisons connectées ;
+     * la solution complétée en connecte toujours au moins autant.
+     *
+     * @param solutionOrigine l'affectation avant la construction
+     * @param noyau le noyau portant l'affectation partielle
+     */
+    void completerConstructionInterrompue(int[] solutionOrigine, NoyauReseau noyau) {
+        int nbMaisons = noyau.nombreMaisons();
+        int connecteesOrigine = 0;
+        int connectees = 0;
+        for (int m = 0; m < nbMaisons; m++) {
+            if (noyau.generateur(m) < 0) {
+                noyau.changeConnexion(m, solutionOrigine[m]);
+            }
+            if (solutionOrigine[m] >= 0) connecteesOrigine++;
+            if (noyau.generateur(m) >= 0) connectees++;
+        }
+        if (connectees > connecteesOrigine) return;
+
+        double coutComplete = noyau.cout();
+        int[] complete = noyau.copierAffectation();
+        restaurerSolution(solutionOrigine, noyau);
+        if (noyau.cout() >= coutComplete) {
+            restaurerSolution(complete, noyau);
+        }
+    }
+
+    private static int trouverMeilleurGenerateur(int m, NoyauReseau noyau) {
+        int meilleur = -1;
+        double meilleurScore = Double.NEGATIVE_INFINITY;
+
+        for (int g = 0; g < noyau.nombreGenerateurs(); g++) {
+            int charge = noyau.charge(g);
+            double capaciteRestante = noyau.capacite(g) - charge;
+            double taux = (double) charge / noyau.capacite(g);
+            double score = capaciteRestante * (1.0 - taux);
+
+            // pénalité massive si risque immédiat de dépassement
+            if (capaciteRestante < noyau.consommation(m)) {
+                score -= 100000.0;
+            }
+
+            if (score > meilleurScore) {
+                meilleurScore = score;
+                meilleur = g;
+            }
+        }
+
+        return meilleur;
+    }
+
+    /**
+     * Recuit simulé adaptatif :
+     * - on effectue des fenêtres de W itérations à température courante,
+     * - on ajuste T UNE FOIS par fenêtre selon le taux d'acceptation,
+     * - reheating si stagnation prolongée (limité).
+     * Le jeton est consulté au début de chaque fenêtre.
+     */
+    void recuitSimuleAdaptatif(NoyauReseau noyau, JetonAnnulation jeton) {
+        int nbMaisons = noyau.nombreMaisons();
+        if (nbMaisons == 0 || noyau.nombreGenerateurs() == 0) return;
+
+        final double temperatureInitiale = parametres.getTemperatureInitiale();
+        final double temperatureMin = parametres.getTemperatureMin();
+        final int maxIterations = parametres.getMaxIterationsRecuit();
+        final int seuilRechauffe = parametres.getSeuilRechauffe();
+        final int maxRechauffes = parametres.getMaxRechauffes();
+        final double probabiliteSwap = parametres.getProbabiliteSwap();
+
+        double temperature = temperatureInitiale;
+
+        int iterations = 0;
+        int acceptations = 0;
+        int ameliorations = 0;
+
+        int iterationsSansAmelioration = 0;
+        double meilleurCout = noyau.cout();
+        int nombreRechauffes = 0;
+
+        final int W = parametres.getTailleFenetreAdaptation();
+
+        boolean cible = cibleAtteinte(meilleurCout);
+        if (trace != null) trace.nouveauRecuit();
+
+        while (temperature > temperatureMin && iterations < maxIterations && !cible && !jeton.estAnnule()) {
+            int acceptationsFenetre = 0;
+
+            // Fenêtre à température "fixe"
+            for (int k = 0; k < W && iterations < maxIterations && !cible; k++) {
+                iterations++;
+
+                boolean accepte;
+                if (random.nextDouble() < probabiliteSwap && nbMaisons >= 2) {
+                    accepte = tentativeSwap(noyau, temperature);
+                } else {
+                    accepte = tentativeDeplacement(noyau, temperature);
+                }
+
+                if (accepte) {
+                    acceptations++;
+                    acceptationsFenetre++;
+
+                    double coutActuel = noyau.cout();
+                    if (coutActuel < meilleurCout) {
+                        meilleurCout = coutActuel;
+                        ameliorations++;
+                        iterationsSansAmelioration = 0;
+                        cible = cibleAtteinte(coutActuel);
+                    } else {
+                        iterationsSansAmelioration++;
+                    }
+                } else {
+                    iterationsSansAmelioration++;
+                }
+
+                // Reheating si stagnation
+                if (iterationsSansAmelioration > seuilRechauffe && nombreRechauffes < maxRechauffes) {
+                    temperature = Math.min(temperature * 15.0, temperatureInitiale * 0.4);
+                    iterationsSansAmelioration = 0;
+                    nombreRechauffes++;
+                    if (trace != null) {
+                        trace.enregistrer(TraceRecuit.RECHAUFFE, iterations, temperature,
+                                noyau.cout(), meilleurCout, Double.NaN);
+                    }
+                }
+            }
+
+            // Ajustement de T UNE FOIS par fenêtre
+            double tauxAcceptation = acceptationsFenetre / (double) W;
+            if (trace != null) {
+                trace.enregistrer(TraceRecuit.FENETRE, iterations, temperature,
+                        noyau.cout(), meilleurCout, tauxAcceptation);
+            }
+
+            if (tauxAcceptation > 0.85) {
+                temperature *= 0.95;
+            } else if (tauxAcceptation < 0.15) {
+                temperature *= 0.985;
+            } else {
+                temperature *= 0.97;
+            }
+        }
+
+        if (!parametres.isVerbeux()) return;
+
+        if (iterations >= maxIterations) {
+            System.out.println("  (Limite d'itérations atteinte)");
+        }
+
+        System.out.printf(
+                "  Recuit : %d itérations | %d acceptations (%.1f%%) | %d améliorations | %d réchauffes%n",
+                iterations, acceptations,
+                iterations > 0 ? 100.0 * acceptations / iterations : 0.0,
+                ameliorations, nombreRechauffes
+        );
+    }
+
+    /**
+     * Chaîne de Metropolis à température fixe : tente un nombre donné de mouvements
+     * (swap ou déplacement, selon {@code probabiliteSwap}).
+     *
+     * @param noyau le noyau à faire évoluer
+     * @param temperature la température de la chaîne
+     * @param nbIterations le nombre de mouvements tentés
+     * @return le nombre de mouvements acceptés
+     */
+    int marcheMetropolis(NoyauReseau noyau, double temperature, int nbIterations) {
+        int nbMaisons = noyau.nombreMaisons();
+        if (nbMaisons == 0 || noyau.nombreGenerateurs() == 0) return 0;
+
+        double probabiliteSwap = parametres.getProbabiliteSwap();
+        int acceptations = 0;
+        for (int i = 0; i < nbIterations; i++) {
+            boolean accepte;
+            if (random.nextDouble() < probabiliteSwap && nbMaisons >= 2) {
+                accepte = tentativeSwap(noyau, temperature);
+            } else {
+                accepte = tentativeDeplacement(noyau, temperature);
+            }
+            if (accepte) acceptations++;
+        }
+        return acceptations;
+    }
+
+    boolean tentativeDeplacement(NoyauReseau noyau, double temperature) {
+        if (noyau.nombreMaisons() == 0 || noyau.nombreGenerateurs() == 0) return false;
+
+        int m = choisirMaisonIntelligente(noyau);
+
+        int gNouveau = choisirGenerateurIntelligent(m, noyau);
+
+        int gActuel = noyau.generateur(m);
+        if (gActuel < 0 || gActuel == gNouveau) return false;
+
+        // évaluation sans modification : rien n'est appliqué si le mouvement est rejeté
+        double delta = noyau.deltaDeplacement(m, gNouveau);
+
+        if (delta < 0 || Math.exp(-delta / temperature) > random.nextDouble()) {
+            noyau.changeConnexion(m, gNouveau);
+            return true;
+        }
+
+        return false;
+    }
+
+    boolean tentativeSwap(NoyauReseau noyau, double temperature) {
+        int nbMaisons = noyau.nombreMaisons();
+        if (nbMaisons < 2) return false;
+
+        int m1 = random.nextInt(nbMaisons);
+        int m2 = random.nextInt(nbMaisons);
+        while (m2 == m1) m2 = random.nextInt(nbMaisons);
+
+        int g1 = noyau.generateur(m1);
+        int g2 = noyau.generateur(m2);
+
+        if (g1 < 0 || g2 < 0 || g1 == g2) return false;
+
+        double delta = noyau.deltaSwap(m1, m2);
+
+        if (delta < 0 || Math.exp(-delta / temperature) > random.nextDouble()) {
+            noyau.swap(m1, m2);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Tire une maison, de préférence parmi celles reliées à un générateur déséquilibré
+     * (écart au taux moyen &gt; 0.15) ou surchargé.
+     * <p>
+     * Ces générateurs sont ceux dont le taux sort de la bande
+     * [moyen - 0.15, min(moyen + 0.15, 1)] : l'arbre des taux du noyau, pondéré par le
+     * nombre de maisons, compte et indexe leurs maisons en O(log G), sans parcours des
+     * maisons ni allocation.
+     */
+    int choisirMaisonIntelligente(NoyauReseau noyau) {
+        double tauxMoyen = noyau.tauxMoyen();
+        double bas = tauxMoyen - 0.15;
+        double haut = Math.min(tauxMoyen + 0.15, 1.0);
+
+        long nbPrioritaires = noyau.nombreMaisonsHorsBande(bas, haut);
+
+        if (nbPrioritaires > 0 && random.nextDouble() < 0.7) {
+            return noyau.maisonHorsBande(random.nextLong(nbPrioritaires), bas, haut);
+        }
+
+        return random.nextInt(noyau.nombreMaisons());
+    }
+
+    /**
+     * Tire un générateur cible : 80% du temps parmi les 3 meilleurs scores
+     * (proximité du taux moyen, bonus sous-utilisation, pénalité surcharge), sinon au hasard.
+     */
+    int choisirGenerateurIntelligent(int m, NoyauReseau noyau) {
+        int nbGenerateurs = noyau.nombreGenerateurs();
+
+        if (random.nextDouble() < 0.8) {
+            return retenirMeilleursGenerateurs(m, noyau)[random.nextInt(Math.min(3, nbGenerateurs))];
+        }
+
+        return random.nextInt(nbGenerateurs);
+    }
+
+    /**
+     * Place dans les tampons {@code meilleurs} / {@code scores} les 3 générateurs de meilleur
+     * score pour la maison m ; à score égal, l'indice le plus petit passe devant.
+     * <p>
+     * Sans la pénalité de surcharge, le score croît avec le taux sous la moyenne et décroît
+     * au-dessus : on parcourt donc l'arbre des taux à partir du taux moyen, vers le bas et
+     * vers le haut, en fusionnant les deux suites par score décroissant. Le parcours s'arrête
+     * dès que le prochain score sans pénalité est inférieur au 3e retenu, si bien que seuls
+     * les générateurs proches de la moyenne (et ceux pénalisés qu'il faut enjamber) sont
+     * visités, chacun en O(log G), sans allocation.
+     *
+     * @return le tampon {@code meilleurs}, par score décroissant (-1 au-delà du nombre de générateurs)
+     */
+    int[] retenirMeilleursGenerateurs(int m, NoyauReseau noyau) {
+        double tauxMoyen = noyau.tauxMoyen();
+        int conso = noyau.consommation(m);
+
+        Arrays.fill(meilleurs, -1);
+        Arrays.fill(scores, Double.NEGATIVE_INFINITY);
+
+        int dessous = noyau.generateurPrecedent(tauxMoyen, -1);
+        int dessus = noyau.generateurSuivant(tauxMoyen, -1);
+
+        while (dessous >= 0 || dessus >= 0) {
+            double scoreDessous = dessous >= 0 ? scoreSansPenalite(noyau.taux(dessous), tauxMoyen) : Double.NEGATIVE_INFINITY;
+            double scoreDessus = dessus >= 0 ? scoreSansPenalite(noyau.taux(dessus), tauxMoyen) : Double.NEGATIVE_INFINITY;
+
+            int g;
+            double score;
+            if (dessus < 0 || (dessous >= 0 && scoreDessous >= scoreDessus)) {
+                g = dessous;
+                score = scoreDessous;
+            } else {
+                g = dessus;
+                score = scoreDessus;
+            }
+
+            // plus aucun générateur restant ne peut entrer dans le top 3
+            if (meilleurs[2] >= 0 && score < scores[2]) break;
+
+            if (g == dessous) {
+                dessous = noyau.generateurPrecedent(noyau.taux(g), g);
+            } else {
+                dessus = noyau.generateurSuivant(noyau.taux(g), g);
+            }
+
+            if (noyau.charge(g) + conso > noyau.capacite(g)) score -= 10.0;
+
+            // insertion dans le top 3 (à score égal, l'indice le plus petit d'abord)
+            for (int rang = 0; rang < 3; rang++) {
+                if (meilleurs[rang] < 0 || score > scores[rang] || (score == scores[rang] && g < meilleurs[rang])) {
+                    for (int k = 2; k > rang; k--) {
+                        meilleurs[k] = meilleurs[k - 1];
+                        scores[k] = scores[k - 1];
+                    }
+                    meilleurs[rang] = g;
+                    scores[rang] = score;
+                    break;
+                }
+            }
+        }
+        return meilleurs;
+    }
+
+    /** Score d'un générateur sans la pénalité de surcharge : proximité du taux moyen, bonus sous-utilisation. */
+    private static double scoreSansPenalite(double taux, double tauxMoyen) {
+        double score = -Math.abs(taux - tauxMoyen);
+        if (taux < tauxMoyen) score += 0.5;
+        return score;
+    }
+
+    void perturbationForte(NoyauReseau noyau, double proportion) {
+        int nbMaisons = noyau.nombreMaisons();
+        int nbGenerateurs = noyau.nombreGenerateurs();
+        if (nbMaisons == 0 || nbGenerateurs == 0) return;
+
+        int[] maisons = permutationMaisons = melanger(permutationMaisons, nbMaisons);
+
+        int nbDeplacements = Math.max(1, (int) Math.floor(nbMaisons * proportion));
+
+        for (int i = 0; i < nbDeplacements; i++) {
+            int m = maisons[i];
+            int actuel = noyau.generateur(m);
+            if (actuel < 0) continue;
+
+            if (nbGenerateurs > 1) {
+                // tirage uniforme parmi les autres générateurs
+                int nouveau = random.nextInt(nbGenerateurs - 1);
+                if (nouveau >= actuel) nouveau++;
+                noyau.changeConnexion(m, nouveau);
+            }
+        }
+    }
+
+    /**
+     * Descente locale : déplacements strictement améliorants jusqu'à stabilité.
+     * <p>
+     * Les maisons à examiner sont tenues dans une file (chaque maison y figure au plus une
+     * fois), initialement remplie de toutes les maisons dans un ordre aléatoire. Quand une
+     * maison change de générateur, seules les maisons des générateurs dont la charge a changé
+     * sont remises en file : les autres gardent leur « bit de non-examen ».
+     * <p>
+     * Le taux moyen bouge avec chaque mouvement : une maison laissée de côté peut devenir
+     * améliorable. Aussi, quand la file se vide après au moins une amélioration, elle est
+     * remplie d'une maison par couple (générateur, classe) : deux maisons de même classe sur
+     * le même générateur ont les mêmes variations de coût, si bien que ces O(G · C)
+     * représentants suffisent. La descente ne s'arrête sur une file vide qu'après un tel
+     * remplissage sans amélioration, c'est-à-dire sur un optimum local des déplacements
+     * simples, pour O(G² · C) évaluations au lieu de O(|M| · G). Elle s'arrête aussi après
+     * {@code maxIterationsDescente × |M|} examens, ou quand la cible de coût est atteinte ;
+     * le jeton est consulté avant chaque maison.
+     *
+     * @return le nombre de maisons examinées
+     */
+    long descenteLocale(NoyauReseau noyau, JetonAnnulation jeton) {
+        int nbMaisons = noyau.nombreMaisons();
+        int nbGenerateurs = noyau.nombreGenerateurs();
+        long maxExamens = (long) parametres.getMaxIterationsDescente() * nbMaisons;
+
+        // file circulaire des maisons à examiner, dans un ordre initial aléatoire
+        int[] file = permutationMaisons = melanger(permutationMaisons, nbMaisons);
+        if (dansFile.length < nbMaisons) dansFile = new boolean[nbMaisons];
+        Arrays.fill(dansFile, 0, nbMaisons, true);
+        int tete = 0;
+        int nbEnFile = nbMaisons;
+
+        long examens = 0;
+        int ameliorationsTotales = 0;
+        int ameliorationsDepuisRemplissage = 0;
+
+        while (examens < maxExamens && !jeton.estAnnule()) {
+            if (nbEnFile == 0) {
+                // file vide : une passe complète sans amélioration prouve l'optimum local
+                if (ameliorationsDepuisRemplissage == 0) break;
+                tete = 0;
+                nbEnFile = enfilerRepresentants(noyau, file);
+                ameliorationsDepuisRemplissage = 0;
+            }
+
+            int m = file[tete];
+            tete = tete + 1 == nbMaisons ? 0 : tete + 1;
+            nbEnFile--;
+            dansFile[m] = false;
+            examens++;
+
+            int gDepart = noyau.generateur(m);
+            if (gDepart < 0) continue;
+            int gActuel = gDepart;
+
+            int[] generateurs = permutationGenerateurs = melanger(permutationGenerateurs, nbGenerateurs);
+
+            for (int j = 0; j < nbGenerateurs; j++) {
+                int gNouveau = generateurs[j];
+                if (gActuel == gNouveau) continue;
+
+                if (noyau.deltaDeplacement(m, gNouveau) < 0) {
+                    // la maison quitte gActuel : ses voisins d'origine sont à revoir
+                    nbEnFile = enfiler(noyau, gActuel, file, tete, nbEnFile);
+                    noyau.changeConnexion(m, gNouveau);
+                    ameliorationsTotales++;
+                    ameliorationsDepuisRemplissage++;
+                    gActuel = gNouveau; // on conserve le changement
+                }
+            }
+
+            if (gActuel != gDepart) {
+                nbEnFile = enfiler(noyau, gActuel, file, tete, nbEnFile);
+                if (cibleAtteinte(noyau.cout())) break;
+            }
+        }
+
+        if (parametres.isVerbeux()) {
+            System.out.printf("  Descente : %d examens | %d améliorations%n", examens, ameliorationsTotales);
+        }
+        return examens;
+    }
+
+    /**
+     * Remet en file les maisons d'un générateur qui n'y sont pas déjà.
+     *
+     * @return le nouveau nombre de maisons en file
+     */
+    private int enfiler(NoyauReseau noyau, int g, int[] file, int tete, int nbEnFile) {
+        int nbMaisons = noyau.nombreMaisons();
+        for (int i = 0; i < noyau.nombreMaisonsDe(g); i++) {
+            int voisine = noyau.maisonDe(g, i);
+            if (dansFile[voisine]) continue;
+            dansFile[voisine] = true;
+            int queue = tete + nbEnFile;
+            file[queue >= nbMaisons ? queue - nbMaisons : queue] = voisine;
+            nbEnFile++;
+        }
+        return nbEnFile;
+    }
+
+    /**
+     * Remplit la file vide avec une maison par couple (générateur, classe), les générateurs
+     * étant pris dans un ordre aléatoire. Le parcours des maisons d'un générateur s'arrête
+     * dès que toutes les classes y sont représentées et ne calcule aucune variation de coût.
+     *
+     * @return le nombre de maisons en file
+     */
+    private int enfilerRepresentants(NoyauReseau noyau, int[] file) {
+        int nbGenerateurs = noyau.nombreGenerateurs();
+        int toutesClasses = (1 << NoyauReseau.nombreClasses()) - 1;
+        int[] generateurs = permutationGenerateurs = melanger(permutationGenerateurs, nbGenerateurs);
+        int nbEnFile = 0;
+        for (int j = 0; j < nbGenerateurs; j++) {
+            int g = generateurs[j];
+            int classesVues = 0;
+            for (int i = 0; i < noyau.nombreMaisonsDe(g) && classesVues != toutesClasses; i++) {
+                int m = noyau.maisonDe(g, i);
+                int classe = 1 << noyau.classe(m);
+                if ((classesVues & classe) != 0) continue;
+                classesVues |= classe;
+                dansFile[m] = true;
+                file[nbEnFile++] = m;
+            }
+        }
+        return nbEnFile;
+    }
+
+    /**
+     * Replace chaque maison dont le générateur diffère de la solution mémorisée.
+     */
+    void restaurerSolution(int[] solution, NoyauReseau noyau) {
+        if (solution == null) return;
+
+        noyau.restaurerAffectation(solution);
+    }
+
+    /**
+     * Place une permutation aléatoire de 0..n-1 (Fisher-Yates) dans les n premières
+     * cases du tampon, agrandi au besoin.
+     *
+     * @return le tampon (éventuellement réalloué)
+     */
+    private int[] melanger(int[] tampon, int n) {
+        int[] t = tampon.length >= n ? tampon : new int[n];
+        for (int i = 0; i < n; i++) t[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = t[i];
+            t[i] = t[j];
+            t[j] = tmp;
+        }
+        return t;
+    }
+}
@@ -0,0 +1,365 @@
+package reseau;
+
+/**
+ * Paramètres de l'algorithme d'optimisation (ILS + recuit simulé adaptatif + descente).
+ * <p>
+ * Les valeurs par défaut sont celles décrites dans le README. Chaque
+ * {@link Optimiseur} travaille sur sa propre copie des paramètres : modifier
+ * une instance après la création d'un optimiseur n'a pas d'effet sur lui.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public class ParametresOptimisation {
+
+    /** Nombre total de cycles ILS (1 cycle initial + NB_RESTARTS - 1 itérations) */
+    public static final int NB_RESTARTS = 5;
+
+    /** Température de départ du recuit */
+    public static final double TEMPERATURE_INITIALE = 1000.0;
+
+    /** Température en dessous de laquelle le recuit s'arrête */
+    public static final double TEMPERATURE_MIN = 0.001;
+
+    /** Nombre maximal d'itérations d'un recuit (limite de sécurité) */
+    public static final int MAX_ITERATIONS_RECUIT = 50_000;
+
+    /**
+     * Limite de la descente locale : la descente principale examine au plus
+     * MAX_ITERATIONS_DESCENTE × |M| maisons ; la recherche par effectifs de classes
+     * effectue au plus MAX_ITERATIONS_DESCENTE passes.
+     */
+    public static final int MAX_ITERATIONS_DESCENTE = 1000;
+
+    /** Taille de la fenêtre d'adaptation : T est ajustée une fois toutes les W itérations */
+    public static final int TAILLE_FENETRE_ADAPTATION = 100;
+
+    /** Nombre d'itérations sans amélioration avant une réchauffe */
+    public static final int SEUIL_RECHAUFFE = 800;
+
+    /** Nombre maximal de réchauffes par recuit */
+    public static final int MAX_RECHAUFFES = 3;
+
+    /** Proportion des maisons déplacées par la perturbation ILS */
+    public static final double PROPORTION_PERTURBATION = 0.3;
+
+    /** Probabilité de tenter un swap plutôt qu'un déplacement */
+    public static final double PROBABILITE_SWAP = 0.3;
+
+    /** Température la plus haute de l'échelle de l'échange de répliques (la plus basse est TEMPERATURE_MIN) */
+    public static final double TEMPERATURE_MAX_REPLIQUES = 1.0;
+
+    /** Nombre de tours d'échange de répliques */
+    public static final int NB_ECHANGES_REPLIQUES = 200;
+
+    /** Nombre de mouvements tentés par chaque réplique entre deux tours d'échange */
+    public static final int ITERATIONS_ENTRE_ECHANGES = 250;
+
+    /** Taille maximale (maisons et générateurs) d'un réseau pour tenter la résolution exacte */
+    public static final int TAILLE_MAX_EXACT = 40;
+
+    /** Nombre maximal de nœuds explorés par la résolution exacte */
+    public static final long BUDGET_NOEUDS_EXACT = 200_000L;
+
+    /** Écart absolu à la borne inférieure en dessous duquel l'optimisation s'arrête */
+    public static final double ECART_TOLERE = 1e-9;
+
+    /** Nombre d'entrées de la trace du recuit (0 : trace désactivée) */
+    public static final int TAILLE_TRACE = 0;
+
+    private int nbRestarts = NB_RESTARTS;
+    private double temperatureInitiale = TEMPERATURE_INITIALE;
+    private double temperatureMin = TEMPERATURE_MIN;
+    private int maxIterationsRecuit = MAX_ITERATIONS_RECUIT;
+    private int maxIterationsDescente = MAX_ITERATIONS_DESCENTE;
+    private int tailleFenetreAdaptation = TAILLE_FENETRE_ADAPTATION;
+    private int seuilRechauffe = SEUIL_RECHAUFFE;
+    private int maxRechauffes = MAX_RECHAUFFES;
+    private double proportionPerturbation = PROPORTION_PERTURBATION;
+    private double probabiliteSwap = PROBABILITE_SWAP;
+    private double temperatureMaxRepliques = TEMPERATURE_MAX_REPLIQUES;
+    private int nbEchangesRepliques = NB_ECHANGES_REPLIQUES;
+    private int iterationsEntreEchanges = ITERATIONS_ENTRE_ECHANGES;
+    private int tailleMaxExact = TAILLE_MAX_EXACT;
+    private long budgetNoeudsExact = BUDGET_NOEUDS_EXACT;
+    private double ecartTolere = ECART_TOLERE;
+    private int tailleTrace = TAILLE_TRACE;
+
+    /** Affichage de la progression sur la sortie standard */
+    private boolean verbeux = true;
+
+    /**
+     * Crée un jeu de paramètres avec les valeurs par défaut.
+     */
+    public ParametresOptimisation() {
+    }
+
+    /**
+     * Crée une copie d'un jeu de paramètres.
+     *
+     * @param autre les paramètres à copier
+     */
+    public ParametresOptimisation(ParametresOptimisation autre) {
+        this.nbRestarts = autre.nbRestarts;
+        this.temperatureInitiale = autre.temperatureInitiale;
+        this.temperatureMin = autre.temperatureMin;
+        this.maxIterationsRecuit = autre.maxIterationsRecuit;
+        this.maxIterationsDescente = autre.maxIterationsDescente;
+        this.tailleFenetreAdaptation = autre.tailleFenetreAdaptation;
+        this.seuilRechauffe = autre.seuilRechauffe;
+        this.maxRechauffes = autre.maxRechauffes;
+        this.proportionPerturbation = autre.proportionPerturbation;
+        this.probabiliteSwap = autre.probabiliteSwap;
+        this.temperatureMaxRepliques = autre.temperatureMaxRepliques;
+        this.nbEchangesRepliques = autre.nbEchangesRepliques;
+        this.iterationsEntreEchanges = autre.iterationsEntreEchanges;
+        this.tailleMaxExact = autre.tailleMaxExact;
+        this.budgetNoeudsExact = autre.budgetNoeudsExact;
+        this.ecartTolere = autre.ecartTolere;
+        this.tailleTrace = autre.tailleTrace;
+        this.verbeux = autre.verbeux;
+    }
+
+    public int getNbRestarts() {
+        return nbRestarts;
+    }
+
+    /**
+     * @param nbRestarts nombre total de cycles ILS, au moins 1
+     * @throws IllegalArgumentException si la valeur est inférieure à 1
+     */
+    public void setNbRestarts(int nbRestarts) {
+        verifier(nbRestarts >= 1, "Le nombre de cycles ILS doit être au moins 1.");
+        this.nbRestarts = nbRestarts;
+    }
+
+    public double getTemperatureInitiale() {
+        return temperatureInitiale;
+    }
+
+    /**
+     * @param temperatureInitiale température de départ, strictement positive
+     * @throws IllegalArgumentException si la valeur n'est pas strictement positive
+     */
+    public void setTemperatureInitiale(double temperatureInitiale) {
+        verifier(temperatureInitiale > 0, "La température initiale doit être strictement positive.");
+        this.temperatureInitiale = temperatureInitiale;
+    }
+
+    public double getTemperatureMin() {
+        return temperatureMin;
+    }
+
+    /**
+     * @param temperatureMin température d'arrêt, strictement positive
+     * @throws IllegalArgumentException si la valeur n'est pas strictement positive
+     */
+    public void setTemperatureMin(double temperatureMin) {
+        verifier(temperatureMin > 0, "La température minimale doit être strictement positive.");
+        this.temperatureMin = temperatureMin;
+    }
+
+    public int getMaxIterationsRecuit() {
+        return maxIterationsRecuit;
+    }
+
+    /**
+     * @param maxIterationsRecuit limite d'itérations d'un recuit, positive ou nulle
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setMaxIterationsRecuit(int maxIterationsRecuit) {
+        verifier(maxIterationsRecuit >= 0, "La limite d'itérations du recuit ne peut pas être négative.");
+        this.maxIterationsRecuit = maxIterationsRecuit;
+    }
+
+    public int getMaxIterationsDescente() {
+        return maxIterationsDescente;
+    }
+
+    /**
+     * @param maxIterationsDescente limite de la descente (voir {@link #MAX_ITERATIONS_DESCENTE}), positive ou nulle
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setMaxIterationsDescente(int maxIterationsDescente) {
+        verifier(maxIterationsDescente >= 0, "La limite d'itérations de la descente ne peut pas être négative.");
+        this.maxIterationsDescente = maxIterationsDescente;
+    }
+
+    public int getTailleFenetreAdaptation() {
+        return tailleFenetreAdaptation;
+    }
+
+    /**
+     * @param tailleFenetreAdaptation taille de la fenêtre d'adaptation, au moins 1
+     * @throws IllegalArgumentException si la valeur est inférieure à 1
+     */
+    public void setTailleFenetreAdaptation(int tailleFenetreAdaptation) {
+        verifier(tailleFenetreAdaptation >= 1, "La fenêtre d'adaptation doit contenir au moins une itération.");
+        this.tailleFenetreAdaptation = tailleFenetreAdaptation;
+    }
+
+    public int getSeuilRechauffe() {
+        return seuilRechauffe;
+    }
+
+    /**
+     * @param seuilRechauffe itérations sans amélioration avant réchauffe, positif ou nul
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setSeuilRechauffe(int seuilRechauffe) {
+        verifier(seuilRechauffe >= 0, "Le seuil de réchauffe ne peut pas être négatif.");
+        this.seuilRechauffe = seuilRechauffe;
+    }
+
+    public int getMaxRechauffes() {
+        return maxRechauffes;
+    }
+
+    /**
+     * @param maxRechauffes nombre maximal de réchauffes, positif ou nul
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setMaxRechauffes(int maxRechauffes) {
+        verifier(maxRechauffes >= 0, "Le nombre de réchauffes ne peut pas être négatif.");
+        this.maxRechauffes = maxRechauffes;
+    }
+
+    public double getProportionPerturbation() {
+        return proportionPerturbation;
+    }
+
+    /**
+     * @param proportionPerturbation proportion des maisons perturbées, entre 0 et 1
+     * @throws IllegalArgumentException si la valeur est hors de [0, 1]
+     */
+    public void setProportionPerturbation(double proportionPerturbation) {
+        verifier(proportionPerturbation >= 0 && proportionPerturbation <= 1,
+                "La proportion de perturbation doit être comprise entre 0 et 1.");
+        this.proportionPerturbation = proportionPerturbation;
+    }
+
+    public double getProbabiliteSwap() {
+        return probabiliteSwap;
+    }
+
+    /**
+     * @param probabiliteSwap probabilité de tenter un swap, entre 0 et 1
+     * @throws IllegalArgumentException si la valeur est hors de [0, 1]
+     */
+    public void setProbabiliteSwap(double probabiliteSwap) {
+        verifier(probabiliteSwap >= 0 && probabiliteSwap <= 1,
+                "La probabilité de swap doit être comprise entre 0 et 1.");
+        this.probabiliteSwap = probabiliteSwap;
+    }
+
+    public double getTemperatureMaxRepliques() {
+        return temperatureMaxRepliques;
+    }
+
+    /**
+     * @param temperatureMaxRepliques température la plus haute de l'échelle, strictement positive
+     * @throws IllegalArgumentException si la valeur n'est pas strictement positive
+     */
+    public void setTemperatureMaxRepliques(double temperatureMaxRepliques) {
+        verifier(temperatureMaxRepliques > 0, "La température maximale des répliques doit être strictement positive.");
+        this.temperatureMaxRepliques = temperatureMaxRepliques;
+    }
+
+    public int getNbEchangesRepliques() {
+        return nbEchangesRepliques;
+    }
+
+    /**
+     * @param nbEchangesRepliques nombre de tours d'échange, positif ou nul
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setNbEchangesRepliques(int nbEchangesRepliques) {
+        verifier(nbEchangesRepliques >= 0, "Le nombre de tours d'échange ne peut pas être négatif.");
+        this.nbEchangesRepliques = nbEchangesRepliques;
+    }
+
+    public int getIterationsEntreEchanges() {
+        return iterationsEntreEchanges;
+    }
+
+    /**
+     * @param iterationsEntreEchanges mouvements tentés par réplique entre deux échanges, au moins 1
+     * @throws IllegalArgumentException si la valeur est inférieure à 1
+     */
+    public void setIterationsEntreEchanges(int iterationsEntreEchanges) {
+        verifier(iterationsEntreEchanges >= 1, "Chaque réplique doit tenter au moins un mouvement entre deux échanges.");
+        this.iterationsEntreEchanges = iterationsEntreEchanges;
+    }
+
+    public int getTailleMaxExact() {
+        return tailleMaxExact;
+    }
+
+    /**
+     * @param tailleMaxExact nombre maximal de maisons et de générateurs pour tenter la
+     *                       résolution exacte avant l'ILS (0 pour la désactiver)
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setTailleMaxExact(int tailleMaxExact) {
+        verifier(tailleMaxExact >= 0, "La taille maximale pour la résolution exacte ne peut pas être négative.");
+        this.tailleMaxExact = tailleMaxExact;
+    }
+
+    public long getBudgetNoeudsExact() {
+        return budgetNoeudsExact;
+    }
+
+    /**
+     * @param budgetNoeudsExact nombre maximal de nœuds explorés par la résolution exacte, au moins 1
+     * @throws IllegalArgumentException si la valeur est inférieure à 1
+     */
+    public void setBudgetNoeudsExact(long budgetNoeudsExact) {
+        verifier(budgetNoeudsExact >= 1, "Le budget de nœuds de la résolution exacte doit être au moins 1.");
+        this.budgetNoeudsExact = budgetNoeudsExact;
+    }
+
+    public double getEcartTolere() {
+        return ecartTolere;
+    }
+
+    /**
+     * @param ecartTolere écart absolu entre le coût courant et la borne inférieure en dessous
+     *                    duquel toutes les phases s'arrêtent, positif ou nul
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setEcartTolere(double ecartTolere) {
+        verifier(ecartTolere >= 0, "L'écart toléré ne peut pas être négatif.");
+        this.ecartTolere = ecartTolere;
+    }
+
+    public int getTailleTrace() {
+        return tailleTrace;
+    }
+
+    /**
+     * @param tailleTrace nombre d'entrées de la trace du recuit ({@link TraceRecuit}),
+     *                    0 pour la désactiver
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void setTailleTrace(int tailleTrace) {
+        verifier(tailleTrace >= 0, "La taille de la trace ne peut pas être négative.");
+        this.tailleTrace = tailleTrace;
+    }
+
+    public boolean isVerbeux() {
+        return verbeux;
+    }
+
+    /**
+     * @param verbeux true pour afficher la progression sur la sortie standard
+     */
+    public void setVerbeux(boolean verbeux) {
+        this.verbeux = verbeux;
+    }
+
+    private static void verifier(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
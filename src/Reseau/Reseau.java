@@ -41,6 +41,44 @@ public class Reseau {
     /** Capacité totale du réseau en kW */
     private int capacite;
 
+    /** Indice dense de chaque générateur (position dans {@code generateurs}) */
+    private HashMap<Generateur, Integer> idsGenerateurs;
+
+    /** Maisons dans leur ordre d'ajout : l'indice dans cette liste est l'identifiant dense */
+    private List<Maison> maisons;
+
+    /** Indice dense de chaque maison (position dans {@code maisons}) */
+    private HashMap<Maison, Integer> idsMaisons;
+
+    /** Index des générateurs par nom (le premier ajouté pour un nom donné) */
+    private HashMap<String, Generateur> generateursParNom;
+
+    /** Index des maisons par nom (la première ajoutée pour un nom donné) */
+    private HashMap<String, Maison> maisonsParNom;
+
+    /** Index inverse générateur → maisons connectées, tenu à jour avec {@code connexions} */
+    private MaisonsParGenerateur maisonsParGenerateur;
+
+    /** Taux d'utilisation des générateurs, indexés pour l'évaluation des mouvements */
+    private ArbreUtilisations utilisations;
+
+    /** Générateurs touchés par la restauration en cours, marqués de son époque */
+    private int[] epoqueGenerateurs;
+    private int[] generateursTouches;
+    private int nombreTouches;
+    private int epoqueRestauration;
+
+    /** Transaction en cours : connexions modifiées (maison, ancien générateur), dans l'ordre */
+    private boolean transactionEnCours;
+    private List<Maison> journalMaisons;
+    private List<Generateur> journalGenerateurs;
+
+    /** Indicateurs de coût au début de la transaction */
+    private double coutSauve;
+    private double tauxMoyenSauve;
+    private double dispSauvee;
+    private double surchargeSauvee;
+
     /**
      * Crée un nouveau réseau électrique vide.
      *
@@ -49,11 +87,110 @@ public class Reseau {
     public Reseau(double penalite) {
         this.generateurs = new ArrayList<Generateur>();
         this.connexions = new HashMap<Maison, Generateur>();
+        this.idsGenerateurs = new HashMap<Generateur, Integer>();
+        this.maisons = new ArrayList<Maison>();
+        this.idsMaisons = new HashMap<Maison, Integer>();
+        this.generateursParNom = new HashMap<String, Generateur>();
+        this.maisonsParNom = new HashMap<String, Maison>();
+        this.maisonsParGenerateur = new MaisonsParGenerateur(16, 16);
+        this.utilisations = new ArbreUtilisations(16);
+        this.journalMaisons = new ArrayList<Maison>();
+        this.journalGenerateurs = new ArrayList<Generateur>();
         this.penalite = penalite;
         capacite = 0;
         charge = 0;
     }
 
+    /**
+     * Crée un réseau vide dont les index sont dimensionnés pour une construction en bloc.
+     */
+    private Reseau(double penalite, int nbGenerateurs, int nbMaisons) {
+        this.generateurs = new ArrayList<Generateur>(nbGenerateurs);
+        this.connexions = new HashMap<Maison, Generateur>(capaciteHachage(nbMaisons));
+        this.idsGenerateurs = new HashMap<Generateur, Integer>(capaciteHachage(nbGenerateurs));
+        this.maisons = new ArrayList<Maison>(nbMaisons);
+        this.idsMaisons = new HashMap<Maison, Integer>(capaciteHachage(nbMaisons));
+        this.generateursParNom = new HashMap<String, Generateur>(capaciteHachage(nbGenerateurs));
+        this.maisonsParNom = new HashMap<String, Maison>(capaciteHachage(nbMaisons));
+        this.maisonsParGenerateur = new MaisonsParGenerateur(nbGenerateurs, nbMaisons);
+        this.journalMaisons = new ArrayList<Maison>();
+        this.journalGenerateurs = new ArrayList<Generateur>();
+        this.penalite = penalite;
+    }
+
+    /** Capacité initiale d'une table de hachage devant contenir n entrées sans redimensionnement. */
+    private static int capaciteHachage(int n) {
+        return Math.max(16, (int) Math.ceil(n / 0.75));
+    }
+
+    /**
+     * Construit un réseau d'un bloc, dans l'état qu'auraient donné les appels successifs à
+     * {@link #addGenerateur(Generateur)}, {@link #addMaison(Maison)} puis
+     * {@link #restaurerInstantane(int[])}, mais sans redimensionner aucun index : les tables
+     * sont dimensionnées d'emblée et l'index des taux d'utilisation est assemblé en une fois
+     * à partir des charges finales.
+     *
+     * @param penalite le coefficient de pénalité pour les surcharges
+     * @param generateurs les générateurs, dans l'ordre de leurs indices
+     * @param maisons les maisons, dans l'ordre de leurs indices
+     * @param affectation pour chaque maison, l'indice de son générateur ou -1
+     * @return le réseau, coût calculé
+     * @throws IllegalArgumentException si l'affectation ne correspond pas aux maisons, désigne
+     *                                  un générateur inconnu, ou si un élément est présent deux fois
+     * @throws IllegalStateException si la capacité du réseau est insuffisante
+     */
+    public static Reseau construire(double penalite, List<Generateur> generateurs, List<Maison> maisons,
+                                    int[] affectation) {
+        int nbGenerateurs = generateurs.size();
+        int nbMaisons = maisons.size();
+        Reseau r = new Reseau(penalite, nbGenerateurs, nbMaisons);
+
+        for (Generateur g : generateurs) {
+            if (r.idsGenerateurs.put(g, r.generateurs.size()) != null) {
+                throw new IllegalArgumentException("Générateur présent deux fois : " + g.getNom());
+            }
+            r.generateurs.add(g);
+            r.generateursParNom.putIfAbsent(g.getNom(), g);
+            r.maisonsParGenerateur.ajouterGenerateur();
+            r.capacite += g.getCapacite();
+        }
+
+        if (affectation.length != nbMaisons) {
+            throw new IllegalArgumentException("L'affectation ne correspond pas aux maisons du réseau.");
+        }
+        for (Maison m : maisons) {
+            r.charge += m.getConsommation();
+            if (r.charge > r.capacite) {
+                throw new IllegalStateException(
+                        "La capacité du réseau doit être supérieure à sa charge.\n" +
+                                "Ajoutez d'abord un générateur avant d'ajouter une nouvelle maison");
+            }
+            if (r.idsMaisons.containsKey(m)) {
+                throw new IllegalArgumentException("Maison présente deux fois : " + m.getNom());
+            }
+            int id = r.maisons.size();
+            r.enregistrerMaison(m);
+            int g = affectation[id];
+            r.verifierGenerateurInstantane(g);
+            if (g >= 0) {
+                Generateur generateur = r.generateurs.get(g);
+                generateur.addMaison(m);
+                r.connexions.put(m, generateur);
+                r.maisonsParGenerateur.affecter(id, g);
+            } else {
+                r.connexions.put(m, null);
+            }
+        }
+
+        double[] taux = new double[nbGenerateurs];
+        for (int g = 0; g < nbGenerateurs; g++) {
+            taux[g] = r.generateurs.get(g).calculTauxUtilisation();
+        }
+        r.utilisations = ArbreUtilisations.construire(taux, nbGenerateurs);
+        r.calculCout();
+        return r;
+    }
+
     /**
      * Ajoute une maison au réseau sans la connecter.
      * <p>
@@ -64,6 +201,7 @@ public class Reseau {
      * @throws IllegalStateException si la capacité du réseau est insuffisante
      */
     public void addMaison(Maison maison) throws IllegalStateException {
+        verifierHorsTransaction();
         charge += maison.getConsommation();
         if (charge > capacite) {
             charge -= maison.getConsommation(); // Rollback
@@ -72,6 +210,23 @@ public class Reseau {
                             "Ajoutez d'abord un générateur avant d'ajouter une nouvelle maison");
         }
         connexions.put(maison, null);
+        if (!idsMaisons.containsKey(maison)) {
+            enregistrerMaison(maison);
+        } else {
+            majMaisonsParGenerateur(maison, null);
+        }
+    }
+
+    /**
+     * Attribue un indice dense à une maison et l'inscrit dans les index.
+     *
+     * @param maison la maison à enregistrer
+     */
+    private void enregistrerMaison(Maison maison) {
+        idsMaisons.put(maison, maisons.size());
+        maisons.add(maison);
+        maisonsParNom.putIfAbsent(maison.getNom(), maison);
+        maisonsParGenerateur.ajouterMaison();
     }
 
     /**
@@ -94,7 +249,13 @@ public class Reseau {
      * @param generateur le générateur à ajouter
      */
     public void addGenerateur(Generateur generateur) {
+        verifierHorsTransaction();
+        int id = generateurs.size();
         generateurs.add(generateur);
+        idsGenerateurs.put(generateur, id);
+        generateursParNom.putIfAbsent(generateur.getNom(), generateur);
+        maisonsParGenerateur.ajouterGenerateur();
+        utilisations.inserer(id, generateur.calculTauxUtilisation());
         capacite += generateur.getCapacite();
     }
 
@@ -117,8 +278,15 @@ public class Reseau {
      * @param generateur le générateur cible
      */
     public void addConnexion(Maison maison, Generateur generateur) {
+        if (!idsMaisons.containsKey(maison)) {
+            verifierHorsTransaction();
+            enregistrerMaison(maison);
+        }
+        journaliser(maison);
         connexions.put(maison, generateur);
         generateur.addMaison(maison);
+        majUtilisation(generateur);
+        majMaisonsParGenerateur(maison, generateur);
     }
 
     /**
@@ -140,8 +308,11 @@ public class Reseau {
      * @param generateur le générateur à déconnecter
      */
     public void supprConnexion(Maison maison, Generateur generateur) {
+        journaliser(maison);
         connexions.put(maison, null);
         generateur.supprimerMaison(maison);
+        majUtilisation(generateur);
+        majMaisonsParGenerateur(maison, null);
     }
 
     /**
@@ -154,9 +325,130 @@ public class Reseau {
      * @param g2 le générateur cible
      */
     public void changeConnexion(Maison m1, Generateur g1, Generateur g2) {
+        journaliser(m1);
         connexions.put(m1, g2);
         g1.supprimerMaison(m1);
         g2.addMaison(m1);
+        majUtilisation(g1);
+        majUtilisation(g2);
+        majMaisonsParGenerateur(m1, g2);
+    }
+
+    /**
+     * Ouvre une transaction : les changements de connexion suivants sont journalisés
+     * et les indicateurs de coût courants (coût, taux moyen, dispersion, surcharge)
+     * sont sauvegardés, pour pouvoir être annulés par {@link #annulerTransaction()}.
+     * <p>
+     * Pendant une transaction, seules les connexions de maisons déjà présentes peuvent
+     * changer : ajouter une maison ou un générateur est refusé.
+     *
+     * @throws IllegalStateException si une transaction est déjà en cours
+     */
+    public void debutTransaction() {
+        if (transactionEnCours) {
+            throw new IllegalStateException("Une transaction est déjà en cours.");
+        }
+        transactionEnCours = true;
+        coutSauve = cout;
+        tauxMoyenSauve = tauxUtilisationMoyen;
+        dispSauvee = disp;
+        surchargeSauvee = surcharge;
+    }
+
+    /**
+     * Valide la transaction en cours : les changements sont conservés et le journal vidé, en O(1).
+     *
+     * @throws IllegalStateException si aucune transaction n'est en cours
+     */
+    public void validerTransaction() {
+        verifierTransaction();
+        transactionEnCours = false;
+        journalMaisons.clear();
+        journalGenerateurs.clear();
+    }
+
+    /**
+     * Annule la transaction en cours : les connexions modifiées depuis son ouverture sont
+     * rétablies en bloc, en parcourant le journal à rebours, et l'index des taux d'utilisation
+     * n'est mis à jour qu'une fois par générateur touché ; les indicateurs de coût
+     * sauvegardés sont ensuite restaurés tels quels, sans recalcul.
+     *
+     * @throws IllegalStateException si aucune transaction n'est en cours
+     */
+    public void annulerTransaction() {
+        verifierTransaction();
+        transactionEnCours = false;
+        debutRestauration();
+        for (int i = journalMaisons.size() - 1; i >= 0; i--) {
+            Generateur ancien = journalGenerateurs.get(i);
+            poserConnexion(idsMaisons.get(journalMaisons.get(i)), ancien == null ? -1 : idsGenerateurs.get(ancien));
+        }
+        majUtilisationsTouchees();
+        journalMaisons.clear();
+        journalGenerateurs.clear();
+        cout = coutSauve;
+        tauxUtilisationMoyen = tauxMoyenSauve;
+        disp = dispSauvee;
+        surcharge = surchargeSauvee;
+    }
+
+    /**
+     * Indique si une transaction est en cours.
+     *
+     * @return true entre {@link #debutTransaction()} et sa validation ou son annulation
+     */
+    public boolean isTransactionEnCours() {
+        return transactionEnCours;
+    }
+
+    /**
+     * Mémorise la connexion actuelle d'une maison si une transaction est en cours.
+     *
+     * @param m la maison dont la connexion va changer
+     */
+    private void journaliser(Maison m) {
+        if (transactionEnCours) {
+            journalMaisons.add(m);
+            journalGenerateurs.add(connexions.get(m));
+        }
+    }
+
+    private void verifierTransaction() {
+        if (!transactionEnCours) {
+            throw new IllegalStateException("Aucune transaction en cours.");
+        }
+    }
+
+    private void verifierHorsTransaction() {
+        if (transactionEnCours) {
+            throw new IllegalStateException("Impossible de modifier la structure du réseau pendant une transaction.");
+        }
+    }
+
+    /**
+     * Répercute la charge courante d'un générateur dans l'index des taux d'utilisation.
+     *
+     * @param g le générateur dont la charge vient de changer
+     */
+    private void majUtilisation(Generateur g) {
+        Integer id = idsGenerateurs.get(g);
+        if (id != null) {
+            utilisations.mettreAJour(id, g.calculTauxUtilisation());
+        }
+    }
+
+    /**
+     * Répercute la connexion courante d'une maison dans l'index inverse générateur → maisons.
+     *
+     * @param m la maison dont la connexion vient de changer
+     * @param g son nouveau générateur, ou null si elle n'est plus connectée
+     */
+    private void majMaisonsParGenerateur(Maison m, Generateur g) {
+        Integer idMaison = idsMaisons.get(m);
+        if (idMaison != null) {
+            Integer idGen = g == null ? null : idsGenerateurs.get(g);
+            maisonsParGenerateur.affecter(idMaison, idGen == null ? -1 : idGen);
+        }
     }
 
     /**
@@ -193,7 +485,9 @@ public class Reseau {
      * <p>
      * Formule : coût = dispersion + (pénalité × surcharge)
      * <p>
-     * Réinitialise et recalcule tous les indicateurs.
+     * Réinitialise et recalcule tous les indicateurs. La somme reste séquentielle, dans
+     * l'ordre des générateurs, pour que les valeurs soient identiques bit à bit d'une
+     * version à l'autre ; l'index des taux d'utilisation ne sert qu'à évaluer les mouvements.
      */
     public void calculCout() {
         disp = 0;
@@ -203,6 +497,271 @@ public class Reseau {
         cout = disp + (penalite * surcharge);
     }
 
+    /**
+     * Évalue la variation de coût qu'entraînerait le déplacement d'une maison,
+     * sans modifier le réseau.
+     * <p>
+     * L'évaluation s'appuie sur l'index des taux d'utilisation, en lecture seule, et coûte
+     * O(log G). Elle correspond, aux arrondis près, à la différence des coûts obtenue en
+     * appliquant {@link #changeConnexion(Maison, Generateur, Generateur)} puis
+     * {@link #calculCout()}.
+     *
+     * @param maison la maison à déplacer, actuellement connectée à {@code source}
+     * @param source le générateur actuel de la maison
+     * @param cible le générateur de destination
+     * @return coût après déplacement moins coût actuel
+     * @throws IllegalArgumentException si la maison n'est pas connectée à {@code source}
+     *         ou si {@code cible} n'appartient pas au réseau
+     */
+    public double deltaDeplacement(Maison maison, Generateur source, Generateur cible) {
+        if (source == null || connexions.get(maison) != source) {
+            throw new IllegalArgumentException("La maison n'est pas connectée au générateur source.");
+        }
+        verifierGenerateurDuReseau(cible);
+        if (source == cible) {
+            return 0.0;
+        }
+        int conso = maison.getConsommation();
+        return variationCout(source, source.getChargeActuelle() - conso,
+                cible, cible.getChargeActuelle() + conso);
+    }
+
+    /**
+     * Évalue la variation de coût qu'entraînerait l'échange des générateurs
+     * de deux maisons, sans modifier le réseau.
+     * <p>
+     * Si les deux maisons partagent le même générateur, l'échange est neutre
+     * et la variation est nulle.
+     *
+     * @param m1 la première maison
+     * @param m2 la seconde maison
+     * @return coût après échange moins coût actuel
+     * @throws IllegalArgumentException si l'une des maisons n'est pas connectée
+     */
+    public double deltaSwap(Maison m1, Maison m2) {
+        Generateur g1 = connexions.get(m1);
+        Generateur g2 = connexions.get(m2);
+        if (g1 == null || g2 == null) {
+            throw new IllegalArgumentException("Les deux maisons doivent être connectées.");
+        }
+        if (g1 == g2) {
+            return 0.0;
+        }
+        int difference = m2.getConsommation() - m1.getConsommation();
+        return variationCout(g1, g1.getChargeActuelle() + difference,
+                g2, g2.getChargeActuelle() - difference);
+    }
+
+    /**
+     * Calcule la variation de coût si les charges de deux générateurs distincts
+     * étaient remplacées, en O(log G) et sans modifier l'index des taux d'utilisation.
+     *
+     * @param ga le premier générateur modifié
+     * @param chargeA la charge hypothétique de {@code ga}
+     * @param gb le second générateur modifié
+     * @param chargeB la charge hypothétique de {@code gb}
+     * @return la variation de coût
+     */
+    private double variationCout(Generateur ga, int chargeA, Generateur gb, int chargeB) {
+        return utilisations.variationCout(idsGenerateurs.get(ga), taux(chargeA, ga.getCapacite()),
+                idsGenerateurs.get(gb), taux(chargeB, gb.getCapacite()), penalite);
+    }
+
+    /** Refuse un générateur qui n'a pas été ajouté à ce réseau. */
+    private void verifierGenerateurDuReseau(Generateur g) {
+        if (g == null || !idsGenerateurs.containsKey(g)) {
+            throw new IllegalArgumentException("Le générateur n'appartient pas au réseau.");
+        }
+    }
+
+    /**
+     * Taux d'utilisation d'une charge sur une capacité, avec la même
+     * convention que {@link Generateur#calculTauxUtilisation()}.
+     */
+    static double taux(int charge, int capacite) {
+        return capacite == 0 ? 0.0 : (double) charge / capacite;
+    }
+
+    /**
+     * Retourne l'indice dense d'un générateur du réseau.
+     *
+     * @param g le générateur
+     * @return sa position dans {@link #getGenerateurs()}, ou -1 s'il n'appartient pas au réseau
+     */
+    public int idGenerateur(Generateur g) {
+        Integer id = idsGenerateurs.get(g);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retourne l'indice dense d'une maison du réseau.
+     *
+     * @param m la maison
+     * @return son rang d'ajout dans le réseau, ou -1 si elle n'appartient pas au réseau
+     */
+    public int idMaison(Maison m) {
+        Integer id = idsMaisons.get(m);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retourne un instantané compact des connexions : pour chaque maison, dans l'ordre de
+     * ses identifiants denses (ordre d'ajout), l'indice de son générateur dans
+     * {@link #getGenerateurs()}, ou -1 si elle n'est pas connectée.
+     * <p>
+     * L'instantané est lu dans l'index inverse, sans parcourir ni copier la map des connexions.
+     *
+     * @return un nouveau tableau maison → générateur
+     */
+    public int[] getInstantane() {
+        int[] instantane = new int[maisons.size()];
+        for (int m = 0; m < instantane.length; m++) {
+            instantane[m] = maisonsParGenerateur.generateur(m);
+        }
+        return instantane;
+    }
+
+    /**
+     * Rétablit les connexions d'un instantané obtenu par {@link #getInstantane()}, puis
+     * recalcule le coût. Seules les maisons dont le générateur diffère sont modifiées.
+     * <p>
+     * Les connexions sont posées en bloc : l'index des taux d'utilisation n'est mis à jour
+     * qu'une fois par générateur touché, et non à chaque maison déplacée.
+     *
+     * @param instantane le tableau maison → générateur à rétablir
+     * @throws IllegalArgumentException si l'instantané ne correspond pas aux maisons
+     *                                  et générateurs du réseau
+     */
+    public void restaurerInstantane(int[] instantane) {
+        verifierTailleInstantane(instantane);
+        for (int id : instantane) {
+            verifierGenerateurInstantane(id);
+        }
+        debutRestauration();
+        for (int m = 0; m < instantane.length; m++) {
+            poserConnexion(m, instantane[m]);
+        }
+        finRestauration();
+    }
+
+    /**
+     * Rétablit les connexions d'un instantané pour les seules maisons listées, les autres
+     * étant supposées déjà conformes, puis recalcule le coût. Le travail est proportionnel
+     * au nombre de maisons listées, et non au nombre total de maisons.
+     *
+     * @param instantane le tableau maison → générateur à rétablir
+     * @param maisonsModifiees les identifiants des maisons susceptibles de différer
+     * @param nombre le nombre d'identifiants à lire dans {@code maisonsModifiees}
+     * @throws IllegalArgumentException si l'instantané ne correspond pas aux maisons
+     *                                  et générateurs du réseau
+     */
+    public void restaurerInstantane(int[] instantane, int[] maisonsModifiees, int nombre) {
+        verifierTailleInstantane(instantane);
+        for (int i = 0; i < nombre; i++) {
+            int m = maisonsModifiees[i];
+            if (m < 0 || m >= instantane.length) {
+                throw new IllegalArgumentException("Maison inconnue dans l'instantané : " + m);
+            }
+            verifierGenerateurInstantane(instantane[m]);
+        }
+        debutRestauration();
+        for (int i = 0; i < nombre; i++) {
+            int m = maisonsModifiees[i];
+            poserConnexion(m, instantane[m]);
+        }
+        finRestauration();
+    }
+
+    private void verifierTailleInstantane(int[] instantane) {
+        if (instantane.length != maisons.size()) {
+            throw new IllegalArgumentException("L'instantané ne correspond pas aux maisons du réseau.");
+        }
+    }
+
+    private void verifierGenerateurInstantane(int id) {
+        if (id < -1 || id >= generateurs.size()) {
+            throw new IllegalArgumentException("Générateur inconnu dans l'instantané : " + id);
+        }
+    }
+
+    /**
+     * Ouvre une restauration : les générateurs touchés seront marqués de l'époque courante
+     * dans des tableaux réutilisés d'un appel à l'autre.
+     */
+    private void debutRestauration() {
+        if (epoqueGenerateurs == null || epoqueGenerateurs.length < generateurs.size()) {
+            epoqueGenerateurs = new int[generateurs.size()];
+            generateursTouches = new int[generateurs.size()];
+            epoqueRestauration = 0;
+        }
+        nombreTouches = 0;
+        epoqueRestauration++;
+        if (epoqueRestauration == 0) {
+            // dépassement après 2^32 restaurations : on repart d'un marquage vierge
+            Arrays.fill(epoqueGenerateurs, 0);
+            epoqueRestauration = 1;
+        }
+    }
+
+    /**
+     * Connecte une maison au générateur voulu si elle n'y est pas déjà, sans toucher à
+     * l'index des taux d'utilisation (voir {@link #finRestauration()}).
+     */
+    private void poserConnexion(int m, int cible) {
+        int actuel = maisonsParGenerateur.generateur(m);
+        if (actuel == cible) return;
+
+        Maison maison = maisons.get(m);
+        journaliser(maison);
+        if (actuel >= 0) {
+            generateurs.get(actuel).supprimerMaison(maison);
+            marquerTouche(actuel);
+        }
+        if (cible >= 0) {
+            generateurs.get(cible).addMaison(maison);
+            marquerTouche(cible);
+        }
+        connexions.put(maison, cible < 0 ? null : generateurs.get(cible));
+        maisonsParGenerateur.affecter(m, cible);
+    }
+
+    private void marquerTouche(int g) {
+        if (epoqueGenerateurs[g] != epoqueRestauration) {
+            epoqueGenerateurs[g] = epoqueRestauration;
+            generateursTouches[nombreTouches++] = g;
+        }
+    }
+
+    /**
+     * Reporte dans l'index des taux d'utilisation les seuls générateurs dont la charge a
+     * changé, puis recalcule le coût.
+     */
+    private void finRestauration() {
+        majUtilisationsTouchees();
+        calculCout();
+    }
+
+    /** Répercute dans l'index des taux d'utilisation la charge des générateurs touchés. */
+    private void majUtilisationsTouchees() {
+        for (int i = 0; i < nombreTouches; i++) {
+            int g = generateursTouches[i];
+            double taux = generateurs.get(g).calculTauxUtilisation();
+            if (taux != utilisations.valeur(g)) {
+                utilisations.mettreAJour(g, taux);
+            }
+        }
+    }
+
+    /**
+     * Retourne les maisons dans l'ordre de leurs indices denses, c'est-à-dire l'ordre
+     * d'ajout et celui des instantanés de {@link #getInstantane()}.
+     *
+     * @return la liste non modifiable des maisons, indexée par identifiant
+     */
+    public List<Maison> getMaisonsParId() {
+        return Collections.unmodifiableList(maisons);
+    }
+
     /**
      * Vérifie si un générateur existe déjà dans le réseau.
      *
@@ -210,7 +769,7 @@ public class Reseau {
      * @return true si le générateur est présent dans le réseau
      */
     public boolean generateurDansReseau(Generateur g) {
-        return generateurs.contains(g);
+        return idsGenerateurs.containsKey(g);
     }
 
     /**
@@ -220,12 +779,7 @@ public class Reseau {
      * @return true si un générateur avec ce nom existe
      */
     public boolean generateurDansReseau(String s) {
-        for (Generateur g : generateurs) {
-            if (g.getNom().equals(s)) {
-                return true;
-            }
-        }
-        return false;
+        return generateursParNom.containsKey(s);
     }
 
     /**
@@ -245,12 +799,7 @@ public class Reseau {
      * @return true si une maison avec ce nom existe
      */
     public boolean maisonDansReseau(String s) {
-        for (Maison m : connexions.keySet()) {
-            if (m.getNom().equals(s)) {
-                return true;
-            }
-        }
-        return false;
+        return maisonsParNom.containsKey(s);
     }
 
     /**
@@ -270,12 +819,7 @@ public class Reseau {
      * @return le générateur correspondant, ou null si non trouvé
      */
     public Generateur getGenerateur(String g) {
-        for (Generateur generateur : generateurs) {
-            if (generateur.getNom().equals(g)) {
-                return generateur;
-            }
-        }
-        return null;
+        return generateursParNom.get(g);
     }
 
     /**
@@ -285,12 +829,7 @@ public class Reseau {
      * @return la maison correspondante, ou null si non trouvée
      */
     public Maison getMaison(String maison) {
-        for (Maison m : connexions.keySet()) {
-            if (m.getNom().equals(maison)) {
-                return m;
-            }
-        }
-        return null;
+        return maisonsParNom.get(maison);
     }
 
     /**
@@ -325,18 +864,35 @@ public class Reseau {
 
     /**
      * Retourne l'ensemble des maisons connectées à un générateur donné.
+     * <p>
+     * S'appuie sur l'index inverse : le coût est proportionnel au nombre
+     * de maisons du générateur, pas à la taille du réseau.
      *
      * @param g le générateur
      * @return le Set des maisons connectées à ce générateur
      */
     public Set<Maison> getMaisons(Generateur g) {
-        Set<Maison> maisons = new HashSet<Maison>();
-        for (Maison m : connexions.keySet()) {
-            if (connexions.get(m) == g) {
-                maisons.add(m);
-            }
+        Integer id = idsGenerateurs.get(g);
+        if (id == null) {
+            return new HashSet<Maison>();
+        }
+        int nombre = maisonsParGenerateur.taille(id);
+        Set<Maison> resultat = new HashSet<Maison>(Math.max(16, 2 * nombre));
+        for (int i = 0; i < nombre; i++) {
+            resultat.add(maisons.get(maisonsParGenerateur.maison(id, i)));
         }
-        return maisons;
+        return resultat;
+    }
+
+    /**
+     * Retourne le nombre de maisons connectées à un générateur, en O(1).
+     *
+     * @param g le générateur
+     * @return le nombre de maisons connectées (0 si le générateur n'appartient pas au réseau)
+     */
+    public int getNombreMaisons(Generateur g) {
+        Integer id = idsGenerateurs.get(g);
+        return id == null ? 0 : maisonsParGenerateur.taille(id);
     }
 
     /**
@@ -0,0 +1,73 @@
+package reseau;
+
+/**
+ * Résultat d'une optimisation : coût atteint, borne inférieure et écart entre les deux.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public final class ResultatOptimisation {
+
+    /** Coût de la solution reportée sur le réseau */
+    private final double cout;
+
+    /** Borne inférieure du coût optimal */
+    private final double borneInferieure;
+
+    /** Optimalité prouvée (écart nul ou résolution exacte complète) */
+    private final boolean optimumProuve;
+
+    /**
+     * @param cout le coût de la solution reportée sur le réseau
+     * @param borneInferieure une borne inférieure du coût optimal
+     * @param optimumProuve true si la solution est prouvée optimale
+     */
+    ResultatOptimisation(double cout, double borneInferieure, boolean optimumProuve) {
+        this.cout = cout;
+        this.borneInferieure = optimumProuve ? cout : Math.min(borneInferieure, cout);
+        this.optimumProuve = optimumProuve;
+    }
+
+    /**
+     * Retourne le coût de la solution reportée sur le réseau.
+     *
+     * @return le coût
+     */
+    public double getCout() {
+        return cout;
+    }
+
+    /**
+     * Retourne la meilleure borne inférieure connue du coût optimal.
+     *
+     * @return la borne inférieure
+     */
+    public double getBorneInferieure() {
+        return borneInferieure;
+    }
+
+    /**
+     * Retourne l'écart absolu entre le coût atteint et la borne inférieure :
+     * la solution est au plus à cette distance de l'optimum.
+     *
+     * @return l'écart (0 si l'optimum est prouvé)
+     */
+    public double getEcart() {
+        return cout - borneInferieure;
+    }
+
+    /**
+     * Indique si la solution est prouvée optimale.
+     *
+     * @return true si le coût atteint la borne inférieure ou si la résolution exacte a abouti
+     */
+    public boolean isOptimumProuve() {
+        return optimumProuve;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("coût %.6f | borne %.6f | écart %.6f%s",
+                cout, borneInferieure, getEcart(), optimumProuve ? " (optimal)" : "");
+    }
+}
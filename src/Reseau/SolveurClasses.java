@@ -0,0 +1,461 @@
+package reseau;
+
+import java.util.SplittableRandom;
+
+/**
+ * Solveur travaillant sur les effectifs par classe de consommation.
+ * <p>
+ * Deux maisons de même classe sont interchangeables : le coût ne dépend que du nombre
+ * de maisons de chaque classe rattachées à chaque générateur. L'état est donc une
+ * matrice G × C (C = nombre de classes de {@link Consommation}) stockée à plat dans
+ * {@code effectif[g * C + c]}, au lieu d'une affectation par maison. L'espace de
+ * recherche ne dépend plus du nombre de maisons, et un mouvement (transfert d'une
+ * maison de classe c d'un générateur à un autre, ou échange de deux maisons de
+ * classes différentes) s'applique en O(1) et s'évalue en O(log G) grâce à
+ * l'{@link ArbreUtilisations}.
+ * <p>
+ * La recherche reprend le schéma de {@link Optimiseur} (recuit à fenêtres, descente,
+ * cycles ILS) ; les effectifs obtenus sont ensuite traduits en connexions concrètes
+ * par {@link #appliquer(NoyauReseau)}, en déplaçant le moins de maisons possible.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class SolveurClasses {
+
+    /** Nombre de classes de consommation */
+    private static final int C = NoyauReseau.nombreClasses();
+
+    /** Nombre de receveurs de plus faible taux, puis de receveurs tirés au hasard, examinés par la descente */
+    private static final int RECEVEURS_EXAMINES = 8;
+
+    private final ParametresOptimisation parametres;
+    private final SplittableRandom random;
+
+    private final int nbGenerateurs;
+
+    /** Nombre total de maisons connectées */
+    private final int nbMaisons;
+
+    /** Nombre de maisons de chaque classe sur chaque générateur */
+    private final int[] effectif;
+
+    /** Nombre de maisons sur chaque générateur */
+    private final int[] nbMaisonsGenerateur;
+
+    private final int[] charge;
+    private final int[] capacite;
+    private final double penalite;
+
+    /** Index des taux d'utilisation des générateurs */
+    private final ArbreUtilisations utilisations;
+
+    /**
+     * Construit les effectifs correspondant aux connexions courantes du noyau
+     * (les maisons non connectées sont ignorées).
+     *
+     * @param noyau le noyau source
+     * @param parametres les paramètres de la recherche
+     * @param random le générateur pseudo-aléatoire
+     */
+    SolveurClasses(NoyauReseau noyau, ParametresOptimisation parametres, SplittableRandom random) {
+        this.parametres = parametres;
+        this.random = random;
+        this.nbGenerateurs = noyau.nombreGenerateurs();
+        this.penalite = noyau.penalite();
+        this.effectif = new int[nbGenerateurs * C];
+        this.nbMaisonsGenerateur = new int[nbGenerateurs];
+        this.charge = new int[nbGenerateurs];
+        this.capacite = new int[nbGenerateurs];
+        this.utilisations = new ArbreUtilisations(nbGenerateurs);
+
+        int connectees = 0;
+        for (int m = 0; m < noyau.nombreMaisons(); m++) {
+            int g = noyau.generateur(m);
+            if (g < 0) continue;
+            effectif[g * C + noyau.classe(m)]++;
+            nbMaisonsGenerateur[g]++;
+            connectees++;
+        }
+        this.nbMaisons = connectees;
+        for (int g = 0; g < nbGenerateurs; g++) {
+            capacite[g] = noyau.capacite(g);
+            charge[g] = noyau.charge(g);
+            utilisations.inserer(g, Reseau.taux(charge[g], capacite[g]));
+        }
+    }
+
+    /**
+     * Retourne le nombre de maisons d'une classe sur un générateur.
+     *
+     * @param g l'identifiant du générateur
+     * @param classe l'ordinal de {@link Consommation}
+     * @return l'effectif
+     */
+    int effectif(int g, int classe) {
+        return effectif[g * C + classe];
+    }
+
+    /**
+     * Calcule le coût courant en O(log G).
+     *
+     * @return le coût (dispersion + pénalité × surcharge)
+     */
+    double cout() {
+        return utilisations.cout(penalite);
+    }
+
+    /**
+     * Évalue le transfert d'une maison de classe {@code classe} de {@code source} vers {@code cible}.
+     *
+     * @return coût après transfert moins coût actuel
+     */
+    double deltaTransfert(int classe, int source, int cible) {
+        int conso = NoyauReseau.consommationDeClasse(classe);
+        return utilisations.variationCout(source, Reseau.taux(charge[source] - conso, capacite[source]),
+                cible, Reseau.taux(charge[cible] + conso, capacite[cible]), penalite);
+    }
+
+    /**
+     * Transfère une maison de classe {@code classe} de {@code source} vers {@code cible}.
+     */
+    void transferer(int classe, int source, int cible) {
+        int conso = NoyauReseau.consommationDeClasse(classe);
+        effectif[source * C + classe]--;
+        effectif[cible * C + classe]++;
+        nbMaisonsGenerateur[source]--;
+        nbMaisonsGenerateur[cible]++;
+        charge[source] -= conso;
+        charge[cible] += conso;
+        utilisations.mettreAJour(source, Reseau.taux(charge[source], capacite[source]));
+        utilisations.mettreAJour(cible, Reseau.taux(charge[cible], capacite[cible]));
+    }
+
+    /**
+     * Évalue l'échange d'une maison de classe c1 de g1 contre une maison de classe c2 de g2.
+     *
+     * @return coût après échange moins coût actuel
+     */
+    double deltaEchange(int c1, int g1, int c2, int g2) {
+        int difference = NoyauReseau.consommationDeClasse(c2) - NoyauReseau.consommationDeClasse(c1);
+        return utilisations.variationCout(g1, Reseau.taux(charge[g1] + difference, capacite[g1]),
+                g2, Reseau.taux(charge[g2] - difference, capacite[g2]), penalite);
+    }
+
+    /**
+     * Échange une maison de classe c1 de g1 contre une maison de classe c2 de g2.
+     */
+    void echanger(int c1, int g1, int c2, int g2) {
+        int difference = NoyauReseau.consommationDeClasse(c2) - NoyauReseau.consommationDeClasse(c1);
+        effectif[g1 * C + c1]--;
+        effectif[g1 * C + c2]++;
+        effectif[g2 * C + c2]--;
+        effectif[g2 * C + c1]++;
+        charge[g1] += difference;
+        charge[g2] -= difference;
+        utilisations.mettreAJour(g1, Reseau.taux(charge[g1], capacite[g1]));
+        utilisations.mettreAJour(g2, Reseau.taux(charge[g2], capacite[g2]));
+    }
+
+    /**
+     * Optimise les effectifs : recuit + descente, puis cycles ILS
+     * (perturbation de la meilleure solution, recuit, descente).
+     *
+     * @param jeton le jeton d'annulation
+     * @return le meilleur coût trouvé (les effectifs sont laissés dans cette configuration)
+     */
+    double optimiser(JetonAnnulation jeton) {
+        if (nbMaisons == 0 || nbGenerateurs < 2) return cout();
+
+        double meilleurCout = cout();
+        int[] meilleurEffectif = effectif.clone();
+
+        for (int cycle = 0; cycle < parametres.getNbRestarts() && !jeton.estAnnule(); cycle++) {
+            if (cycle > 0) {
+                restaurer(meilleurEffectif);
+                perturber(parametres.getProportionPerturbation());
+            }
+            recuit(jeton);
+            descente(jeton);
+
+            if (cout() < meilleurCout) {
+                meilleurCout = cout();
+                meilleurEffectif = effectif.clone();
+            }
+        }
+
+        restaurer(meilleurEffectif);
+        return cout();
+    }
+
+    /**
+     * Reporte les effectifs sur le noyau (voir {@link #appliquerEffectifs}).
+     *
+     * @param noyau le noyau à partir duquel le solveur a été construit
+     */
+    void appliquer(NoyauReseau noyau) {
+        appliquerEffectifs(effectif, noyau);
+    }
+
+    /**
+     * Reporte une matrice d'effectifs {@code effectif[g * C + c]} sur le noyau : les maisons
+     * déjà bien placées restent en place, les autres (y compris les maisons non connectées)
+     * sont réparties sur les générateurs auxquels il manque des maisons de leur classe.
+     * Une maison pour laquelle il ne reste aucune place n'est pas modifiée.
+     *
+     * @param effectif les effectifs visés, indexés par générateur puis par classe
+     * @param noyau le noyau à modifier
+     */
+    static void appliquerEffectifs(int[] effectif, NoyauReseau noyau) {
+        int nbGenerateurs = noyau.nombreGenerateurs();
+        int[] restant = effectif.clone();
+        int[] aReplacer = new int[noyau.nombreMaisons()];
+        int nbAReplacer = 0;
+
+        for (int m = 0; m < noyau.nombreMaisons(); m++) {
+            int g = noyau.generateur(m);
+            int k = g * C + noyau.classe(m);
+            if (g >= 0 && restant[k] > 0) {
+                restant[k]--;
+            } else {
+                aReplacer[nbAReplacer++] = m;
+            }
+        }
+
+        // un curseur par classe sur les générateurs auxquels il manque encore des maisons
+        int[] curseur = new int[C];
+        for (int i = 0; i < nbAReplacer; i++) {
+            int m = aReplacer[i];
+            int c = noyau.classe(m);
+            while (curseur[c] < nbGenerateurs && restant[curseur[c] * C + c] == 0) curseur[c]++;
+            if (curseur[c] == nbGenerateurs) continue;
+            restant[curseur[c] * C + c]--;
+            noyau.changeConnexion(m, curseur[c]);
+        }
+    }
+
+    /**
+     * Recuit à fenêtres sur les effectifs, même schéma de température que
+     * {@link Optimiseur#recuitSimuleAdaptatif}.
+     */
+    private void recuit(JetonAnnulation jeton) {
+        final double temperatureInitiale = parametres.getTemperatureInitiale();
+        final int maxIterations = parametres.getMaxIterationsRecuit();
+        final int W = parametres.getTailleFenetreAdaptation();
+        final double probabiliteSwap = parametres.getProbabiliteSwap();
+
+        double temperature = temperatureInitiale;
+        int iterations = 0;
+        int iterationsSansAmelioration = 0;
+        int nombreRechauffes = 0;
+        double meilleurCout = cout();
+
+        while (temperature > parametres.getTemperatureMin() && iterations < maxIterations && !jeton.estAnnule()) {
+            int acceptationsFenetre = 0;
+
+            for (int k = 0; k < W && iterations < maxIterations; k++) {
+                iterations++;
+
+                boolean accepte = random.nextDouble() < probabiliteSwap
+                        ? tentativeEchange(temperature)
+                        : tentativeTransfert(temperature);
+
+                if (accepte) {
+                    acceptationsFenetre++;
+                    double coutActuel = cout();
+                    if (coutActuel < meilleurCout) {
+                        meilleurCout = coutActuel;
+                        iterationsSansAmelioration = 0;
+                    } else {
+                        iterationsSansAmelioration++;
+                    }
+                } else {
+                    iterationsSansAmelioration++;
+                }
+
+                if (iterationsSansAmelioration > parametres.getSeuilRechauffe()
+                        && nombreRechauffes < parametres.getMaxRechauffes()) {
+                    temperature = Math.min(temperature * 15.0, temperatureInitiale * 0.4);
+                    iterationsSansAmelioration = 0;
+                    nombreRechauffes++;
+                }
+            }
+
+            double tauxAcceptation = acceptationsFenetre / (double) W;
+            if (tauxAcceptation > 0.85) {
+                temperature *= 0.95;
+            } else if (tauxAcceptation < 0.15) {
+                temperature *= 0.985;
+            } else {
+                temperature *= 0.97;
+            }
+        }
+    }
+
+    private boolean tentativeTransfert(double temperature) {
+        int source = tirerGenerateurNonVide();
+        int classe = tirerClasse(source);
+        int cible = random.nextInt(nbGenerateurs - 1);
+        if (cible >= source) cible++;
+
+        double delta = deltaTransfert(classe, source, cible);
+        if (delta < 0 || Math.exp(-delta / temperature) > random.nextDouble()) {
+            transferer(classe, source, cible);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean tentativeEchange(double temperature) {
+        int g1 = tirerGenerateurNonVide();
+        int g2 = tirerGenerateurNonVide();
+        if (g1 == g2) return false;
+        int c1 = tirerClasse(g1);
+        int c2 = tirerClasse(g2);
+        if (c1 == c2) return false;
+
+        double delta = deltaEchange(c1, g1, c2, g2);
+        if (delta < 0 || Math.exp(-delta / temperature) > random.nextDouble()) {
+            echanger(c1, g1, c2, g2);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Descente : transferts et échanges strictement améliorants jusqu'à stabilité.
+     * <p>
+     * Pour chaque générateur et chaque classe qu'il porte, seuls
+     * 2 × {@value #RECEVEURS_EXAMINES} receveurs sont examinés : les moins chargés, en
+     * parcourant l'arbre des taux, puis des générateurs tirés au hasard ; le premier
+     * mouvement améliorant est appliqué. Une passe coûte ainsi O(C² · G · log G) au lieu
+     * de O(C² · G² · log G) ; la descente s'arrête sur une passe sans amélioration.
+     */
+    private void descente(JetonAnnulation jeton) {
+        boolean amelioration = true;
+        int iterations = 0;
+
+        while (amelioration && iterations < parametres.getMaxIterationsDescente()) {
+            amelioration = false;
+            iterations++;
+
+            for (int g1 = 0; g1 < nbGenerateurs; g1++) {
+                if (jeton.estAnnule()) return;
+
+                for (int c1 = 0; c1 < C; c1++) {
+                    if (effectif[g1 * C + c1] > 0 && ameliorerDepuis(g1, c1)) {
+                        amelioration = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cherche un mouvement améliorant pour une maison de classe {@code c1} de {@code g1},
+     * parmi les receveurs de plus faible taux puis parmi des receveurs tirés au hasard.
+     *
+     * @return true si un mouvement a été appliqué
+     */
+    private boolean ameliorerDepuis(int g1, int c1) {
+        int examines = 0;
+        int g2 = utilisations.suivant(Double.NEGATIVE_INFINITY, -1);
+        while (g2 >= 0 && examines < RECEVEURS_EXAMINES) {
+            if (g2 != g1) {
+                examines++;
+                if (ameliorerVers(g1, c1, g2)) return true;
+            }
+            g2 = utilisations.suivant(utilisations.valeur(g2), g2);
+        }
+        for (int tirage = 0; tirage < RECEVEURS_EXAMINES; tirage++) {
+            g2 = random.nextInt(nbGenerateurs - 1);
+            if (g2 >= g1) g2++;
+            if (ameliorerVers(g1, c1, g2)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applique le transfert d'une maison de classe {@code c1} de {@code g1} vers {@code g2},
+     * ou à défaut son échange contre une maison d'une autre classe de {@code g2}, s'il
+     * améliore strictement le coût.
+     *
+     * @return true si un mouvement a été appliqué
+     */
+    private boolean ameliorerVers(int g1, int c1, int g2) {
+        if (deltaTransfert(c1, g1, g2) < 0) {
+            transferer(c1, g1, g2);
+            return true;
+        }
+        for (int c2 = 0; c2 < C; c2++) {
+            if (c2 == c1 || effectif[g2 * C + c2] == 0) continue;
+            if (deltaEchange(c1, g1, c2, g2) < 0) {
+                echanger(c1, g1, c2, g2);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Transfère une proportion des maisons, tirées au hasard, vers d'autres générateurs.
+     */
+    private void perturber(double proportion) {
+        int nbDeplacements = Math.max(1, (int) Math.floor(nbMaisons * proportion));
+        for (int i = 0; i < nbDeplacements; i++) {
+            int source = tirerGenerateurNonVide();
+            int classe = tirerClasse(source);
+            int cible = random.nextInt(nbGenerateurs - 1);
+            if (cible >= source) cible++;
+            transferer(classe, source, cible);
+        }
+    }
+
+    /**
+     * Ramène les effectifs à une configuration mémorisée en O(C · G) : seuls les générateurs
+     * dont un effectif diffère voient leur charge et leur clé dans l'arbre mises à jour.
+     */
+    private void restaurer(int[] cible) {
+        for (int g = 0; g < nbGenerateurs; g++) {
+            boolean modifie = false;
+            for (int c = 0; c < C; c++) {
+                int difference = cible[g * C + c] - effectif[g * C + c];
+                if (difference == 0) continue;
+                effectif[g * C + c] = cible[g * C + c];
+                nbMaisonsGenerateur[g] += difference;
+                charge[g] += difference * NoyauReseau.consommationDeClasse(c);
+                modifie = true;
+            }
+            if (modifie) {
+                utilisations.mettreAJour(g, Reseau.taux(charge[g], capacite[g]));
+            }
+        }
+    }
+
+    /**
+     * Tire un générateur portant au moins une maison.
+     */
+    private int tirerGenerateurNonVide() {
+        int g = random.nextInt(nbGenerateurs);
+        for (int essai = 0; essai < 32 && nbMaisonsGenerateur[g] == 0; essai++) {
+            g = random.nextInt(nbGenerateurs);
+        }
+        // repli : premier générateur non vide à partir du dernier tirage
+        while (nbMaisonsGenerateur[g] == 0) {
+            g = (g + 1) % nbGenerateurs;
+        }
+        return g;
+    }
+
+    /**
+     * Tire la classe d'une maison choisie uniformément parmi celles d'un générateur non vide.
+     */
+    private int tirerClasse(int g) {
+        int rang = random.nextInt(nbMaisonsGenerateur[g]);
+        for (int c = 0; c < C; c++) {
+            rang -= effectif[g * C + c];
+            if (rang < 0) return c;
+        }
+        return C - 1;
+    }
+}
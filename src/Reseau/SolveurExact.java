@@ -0,0 +1,392 @@
+package reseau;
+
+import java.util.Arrays;
+
+/**
+ * Résolution exacte par séparation et évaluation (branch-and-bound), pour les petits réseaux.
+ * <p>
+ * Les maisons d'une même classe étant interchangeables, on ne branche pas maison par
+ * maison mais générateur par générateur : à chaque niveau, on choisit le nombre de
+ * maisons de chaque classe rattachées au générateur, le dernier recevant le reste.
+ * Les générateurs sont traités par capacité décroissante, et deux générateurs de même
+ * capacité étant interchangeables, on impose que leurs vecteurs d'effectifs soient
+ * dans l'ordre décroissant (brisure de symétrie).
+ * <p>
+ * Borne inférieure d'un nœud où les générateurs 1..i sont fixés (taux u_j, somme U) et
+ * où R kW restent à répartir sur r générateurs : la somme S des taux restants est
+ * comprise entre R / cmax et R / cmin (relaxation fractionnaire), et
+ * <pre>
+ *   dispersion ≥ min sur S de  Σ_{j≤i} |u_j - (U+S)/G|  +  |S - r·(U+S)/G|
+ *   surcharge  ≥ Σ_{j≤i} max(0, u_j - 1)  +  max(0, R - capacité restante) / cmax
+ * </pre>
+ * (inégalité triangulaire sur les générateurs restants). La fonction de S est convexe
+ * et affine par morceaux : son minimum est atteint en une borne ou un point de cassure.
+ * <p>
+ * Les candidats d'un niveau sont explorés par charge croissante d'écart à la charge
+ * idéale (répartition proportionnelle aux capacités), pour trouver vite de bonnes solutions.
+ * Leur nombre est le produit des (effectifs restants + 1) : au-delà de
+ * {@link #COMBINAISONS_MAX} vecteurs pour le réseau entier, la résolution est refusée.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class SolveurExact {
+
+    /** Nombre de classes de consommation */
+    private static final int C = NoyauReseau.nombreClasses();
+
+    /** Nombre maximal de vecteurs d'effectifs Π(n_c + 1) d'un réseau résoluble exactement */
+    static final long COMBINAISONS_MAX = 1L << 20;
+
+    /** Tolérance d'élagage : un nœud n'est exploré que s'il peut améliorer strictement */
+    private static final double EPSILON = 1e-12;
+
+    private final int nbGenerateurs;
+    private final double penalite;
+
+    /** Identifiants des générateurs, par capacité décroissante */
+    private final int[] ordre;
+
+    /** Capacités dans l'ordre de traitement */
+    private final int[] capacite;
+
+    /** Par suffixe i..G-1 : capacité totale, capacité max, capacité min non nulle, présence d'une capacité nulle */
+    private final long[] capaciteSuffixe;
+    private final int[] capaciteMaxSuffixe;
+    private final int[] capaciteMinPositiveSuffixe;
+    private final boolean[] capaciteNulleSuffixe;
+
+    /** Nombre total de maisons de chaque classe, et base de l'encodage des vecteurs d'effectifs */
+    private final int[] totalParClasse;
+    private final int[] base;
+
+    /** État de la recherche */
+    private final int[] restant;
+    private final int[] code;
+    private final double[] taux;
+    private final int[] meilleurCode;
+    private double meilleurCout;
+    private boolean ameliore;
+
+    /** Candidats de chaque niveau (clé d'ordre << 32 | code), agrandis selon les effectifs restants */
+    private final long[][] candidats;
+
+    private final long budgetNoeuds;
+    private long noeuds;
+    private boolean interrompu;
+    private JetonAnnulation jeton;
+
+    /**
+     * Prépare la résolution exacte du réseau représenté par le noyau
+     * (toutes ses maisons doivent être affectées).
+     *
+     * @param noyau le noyau
+     * @param budgetNoeuds le nombre maximal de nœuds explorés
+     * @throws IllegalStateException si le réseau dépasse {@link #COMBINAISONS_MAX} vecteurs d'effectifs
+     */
+    SolveurExact(NoyauReseau noyau, long budgetNoeuds) {
+        this.nbGenerateurs = noyau.nombreGenerateurs();
+        this.penalite = noyau.penalite();
+        this.budgetNoeuds = budgetNoeuds;
+
+        Integer[] tri = new Integer[nbGenerateurs];
+        for (int g = 0; g < nbGenerateurs; g++) tri[g] = g;
+        Arrays.sort(tri, (a, b) -> Integer.compare(noyau.capacite(b), noyau.capacite(a)));
+        ordre = new int[nbGenerateurs];
+        capacite = new int[nbGenerateurs];
+        for (int i = 0; i < nbGenerateurs; i++) {
+            ordre[i] = tri[i];
+            capacite[i] = noyau.capacite(tri[i]);
+        }
+
+        capaciteSuffixe = new long[nbGenerateurs + 1];
+        capaciteMaxSuffixe = new int[nbGenerateurs + 1];
+        capaciteMinPositiveSuffixe = new int[nbGenerateurs + 1];
+        capaciteNulleSuffixe = new boolean[nbGenerateurs + 1];
+        capaciteMinPositiveSuffixe[nbGenerateurs] = Integer.MAX_VALUE;
+        for (int i = nbGenerateurs - 1; i >= 0; i--) {
+            capaciteSuffixe[i] = capaciteSuffixe[i + 1] + capacite[i];
+            capaciteMaxSuffixe[i] = Math.max(capaciteMaxSuffixe[i + 1], capacite[i]);
+            capaciteMinPositiveSuffixe[i] = capacite[i] > 0
+                    ? Math.min(capaciteMinPositiveSuffixe[i + 1], capacite[i]) : capaciteMinPositiveSuffixe[i + 1];
+            capaciteNulleSuffixe[i] = capaciteNulleSuffixe[i + 1] || capacite[i] == 0;
+        }
+
+        long combinaisons = combinaisons(noyau);
+        if (combinaisons > COMBINAISONS_MAX) {
+            throw new IllegalStateException("Réseau trop grand pour la résolution exacte ("
+                    + noyau.nombreMaisons() + " maisons, plus de " + COMBINAISONS_MAX + " vecteurs d'effectifs).");
+        }
+
+        totalParClasse = new int[C];
+        for (int m = 0; m < noyau.nombreMaisons(); m++) {
+            totalParClasse[noyau.classe(m)]++;
+        }
+        base = new int[C];
+        int produit = 1;
+        for (int c = 0; c < C; c++) {
+            base[c] = produit;
+            produit *= totalParClasse[c] + 1;
+        }
+
+        restant = new int[C];
+        code = new int[nbGenerateurs];
+        taux = new double[nbGenerateurs];
+        meilleurCode = new int[nbGenerateurs];
+        candidats = new long[nbGenerateurs][];
+    }
+
+    /**
+     * Nombre de vecteurs d'effectifs Π(n_c + 1) du réseau, saturé à {@code Long.MAX_VALUE}.
+     *
+     * @param noyau le noyau
+     * @return le nombre de vecteurs d'effectifs
+     */
+    static long combinaisons(NoyauReseau noyau) {
+        int[] effectifs = new int[C];
+        for (int m = 0; m < noyau.nombreMaisons(); m++) {
+            effectifs[noyau.classe(m)]++;
+        }
+        long produit = 1;
+        for (int c = 0; c < C; c++) {
+            if (produit > Long.MAX_VALUE / (effectifs[c] + 1)) return Long.MAX_VALUE;
+            produit *= effectifs[c] + 1;
+        }
+        return produit;
+    }
+
+    /**
+     * Recherche une solution de coût strictement inférieur à une borne supérieure connue.
+     *
+     * @param borneSuperieure le coût d'une solution connue (ou +∞)
+     * @param jeton le jeton d'annulation
+     * @return true si la recherche est complète (l'optimum est alors la meilleure solution
+     *         trouvée, ou la solution de départ si aucune n'a été trouvée)
+     */
+    boolean resoudre(double borneSuperieure, JetonAnnulation jeton) {
+        this.jeton = jeton;
+        this.meilleurCout = borneSuperieure;
+        this.ameliore = false;
+        this.noeuds = 0;
+        this.interrompu = false;
+        if (nbGenerateurs == 0) return true;
+
+        System.arraycopy(totalParClasse, 0, restant, 0, C);
+        explorer(0, 0.0);
+        return !interrompu;
+    }
+
+    /**
+     * Indique si la recherche a trouvé une solution meilleure que la borne de départ.
+     *
+     * @return true si une solution a été trouvée
+     */
+    boolean aAmeliore() {
+        return ameliore;
+    }
+
+    /**
+     * Retourne le coût de la meilleure solution (ou la borne de départ).
+     *
+     * @return le meilleur coût
+     */
+    double meilleurCout() {
+        return meilleurCout;
+    }
+
+    /**
+     * Retourne le nombre de nœuds explorés par la dernière recherche.
+     *
+     * @return le nombre de nœuds
+     */
+    long noeuds() {
+        return noeuds;
+    }
+
+    /**
+     * Reporte la meilleure solution trouvée sur le noyau.
+     *
+     * @param noyau le noyau à partir duquel le solveur a été construit
+     * @throws IllegalStateException si aucune solution n'a été trouvée
+     */
+    void appliquer(NoyauReseau noyau) {
+        if (!ameliore) {
+            throw new IllegalStateException("Aucune solution meilleure que la borne de départ.");
+        }
+        int[] effectif = new int[nbGenerateurs * C];
+        for (int i = 0; i < nbGenerateurs; i++) {
+            for (int c = 0; c < C; c++) {
+                effectif[ordre[i] * C + c] = (meilleurCode[i] / base[c]) % (totalParClasse[c] + 1);
+            }
+        }
+        SolveurClasses.appliquerEffectifs(effectif, noyau);
+    }
+
+    /**
+     * Explore les vecteurs d'effectifs du générateur de rang i.
+     *
+     * @param sommeTaux somme des taux des générateurs 0..i-1
+     */
+    private void explorer(int i, double sommeTaux) {
+        if (++noeuds > budgetNoeuds || ((noeuds & 0x3FF) == 0 && jeton.estAnnule())) {
+            interrompu = true;
+            return;
+        }
+
+        if (i == nbGenerateurs - 1) {
+            // le dernier générateur reçoit toutes les maisons restantes
+            int c0 = encoder(restant);
+            if (i > 0 && capacite[i] == capacite[i - 1] && c0 > code[i - 1]) return;
+            code[i] = c0;
+            taux[i] = Reseau.taux(charge(restant), capacite[i]);
+            double cout = coutComplet();
+            if (cout < meilleurCout - EPSILON) {
+                meilleurCout = cout;
+                ameliore = true;
+                System.arraycopy(code, 0, meilleurCode, 0, nbGenerateurs);
+            }
+            return;
+        }
+
+        int nbCandidats = genererCandidats(i);
+        long[] liste = candidats[i];
+        int[] k = new int[C];
+
+        for (int n = 0; n < nbCandidats && !interrompu; n++) {
+            int c0 = (int) liste[n];
+            decoder(c0, k);
+
+            code[i] = c0;
+            taux[i] = Reseau.taux(charge(k), capacite[i]);
+            for (int c = 0; c < C; c++) restant[c] -= k[c];
+
+            if (borneInferieure(i, sommeTaux + taux[i]) < meilleurCout - EPSILON) {
+                explorer(i + 1, sommeTaux + taux[i]);
+            }
+
+            for (int c = 0; c < C; c++) restant[c] += k[c];
+        }
+    }
+
+    /**
+     * Place dans {@code candidats[i]} les vecteurs admissibles du générateur de rang i,
+     * triés par écart croissant à sa charge idéale.
+     *
+     * @return le nombre de candidats
+     */
+    private int genererCandidats(int i) {
+        int chargeRestante = charge(restant);
+        double ideale = capaciteSuffixe[i] > 0 ? (double) chargeRestante * capacite[i] / capaciteSuffixe[i] : 0.0;
+        boolean symetrie = i > 0 && capacite[i] == capacite[i - 1];
+
+        int taille = 1;
+        for (int c = 0; c < C; c++) taille *= restant[c] + 1;
+        if (candidats[i] == null || candidats[i].length < taille) {
+            candidats[i] = new long[taille];
+        }
+
+        long[] liste = candidats[i];
+        int n = 0;
+        int[] k = new int[C];
+        while (true) {
+            int c0 = encoder(k);
+            if (!symetrie || c0 <= code[i - 1]) {
+                long cle = Math.round(Math.abs(charge(k) - ideale) * 1024.0);
+                liste[n++] = (cle << 32) | c0;
+            }
+            // vecteur suivant (compteur mixte borné par les effectifs restants)
+            int c = 0;
+            while (c < C && k[c] == restant[c]) {
+                k[c] = 0;
+                c++;
+            }
+            if (c == C) break;
+            k[c]++;
+        }
+        Arrays.sort(liste, 0, n);
+        return n;
+    }
+
+    /**
+     * Borne inférieure du coût de toute solution complétant les générateurs 0..i.
+     */
+    private double borneInferieure(int i, double sommeFixee) {
+        int r = nbGenerateurs - 1 - i;
+        int chargeRestante = charge(restant);
+
+        double sMin = 0.0;
+        double sMax = 0.0;
+        double surcharge = 0.0;
+        if (r > 0 && chargeRestante > 0) {
+            int cmax = capaciteMaxSuffixe[i + 1];
+            int cminPositive = capaciteMinPositiveSuffixe[i + 1];
+            boolean nulle = capaciteNulleSuffixe[i + 1];
+            sMin = nulle || cmax == 0 ? 0.0 : (double) chargeRestante / cmax;
+            sMax = cminPositive == Integer.MAX_VALUE ? 0.0 : (double) chargeRestante / cminPositive;
+            long exces = chargeRestante - capaciteSuffixe[i + 1];
+            if (exces > 0 && !nulle) {
+                surcharge = (double) exces / cmax;
+            }
+        }
+        for (int j = 0; j <= i; j++) {
+            if (taux[j] > 1) surcharge += taux[j] - 1;
+        }
+
+        // minimum de la fonction convexe de S aux bornes et aux points de cassure
+        double dispersion = Math.min(dispersionMinimale(i, r, sommeFixee, sMin),
+                dispersionMinimale(i, r, sommeFixee, sMax));
+        for (int j = 0; j <= i; j++) {
+            double s = nbGenerateurs * taux[j] - sommeFixee;
+            if (s > sMin && s < sMax) {
+                dispersion = Math.min(dispersion, dispersionMinimale(i, r, sommeFixee, s));
+            }
+        }
+        if (r > 0 && r < nbGenerateurs) {
+            double s = r * sommeFixee / (nbGenerateurs - r);
+            if (s > sMin && s < sMax) {
+                dispersion = Math.min(dispersion, dispersionMinimale(i, r, sommeFixee, s));
+            }
+        }
+
+        return dispersion + penalite * surcharge;
+    }
+
+    private double dispersionMinimale(int i, int r, double sommeFixee, double s) {
+        double moyenne = (sommeFixee + s) / nbGenerateurs;
+        double d = Math.abs(s - r * moyenne);
+        for (int j = 0; j <= i; j++) {
+            d += Math.abs(taux[j] - moyenne);
+        }
+        return d;
+    }
+
+    /** Coût exact d'une affectation complète (taux de tous les niveaux connus). */
+    private double coutComplet() {
+        double somme = 0.0;
+        for (int j = 0; j < nbGenerateurs; j++) somme += taux[j];
+        double moyenne = somme / nbGenerateurs;
+        double dispersion = 0.0;
+        double surcharge = 0.0;
+        for (int j = 0; j < nbGenerateurs; j++) {
+            dispersion += Math.abs(taux[j] - moyenne);
+            if (taux[j] > 1) surcharge += taux[j] - 1;
+        }
+        return dispersion + penalite * surcharge;
+    }
+
+    private static int charge(int[] k) {
+        int total = 0;
+        for (int c = 0; c < C; c++) total += k[c] * NoyauReseau.consommationDeClasse(c);
+        return total;
+    }
+
+    private int encoder(int[] k) {
+        int c0 = 0;
+        for (int c = 0; c < C; c++) c0 += k[c] * base[c];
+        return c0;
+    }
+
+    private void decoder(int c0, int[] k) {
+        for (int c = 0; c < C; c++) k[c] = (c0 / base[c]) % (totalParClasse[c] + 1);
+    }
+}
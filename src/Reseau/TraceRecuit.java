@@ -0,0 +1,144 @@
+package reseau;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Trace du recuit simulé adaptatif, pour le réglage de ses paramètres.
+ * <p>
+ * Tampon circulaire préalloué, en tableaux primitifs : une entrée à la fin de chaque fenêtre
+ * d'adaptation (température de la fenêtre, coûts courant et meilleur, taux d'acceptation)
+ * et une à chaque réchauffe. Une fois plein, le tampon écrase les entrées les plus
+ * anciennes ; l'enregistrement n'alloue rien. La trace n'existe que si
+ * {@link ParametresOptimisation#setTailleTrace(int)} est strictement positif : sinon
+ * {@link Optimiseur#getTrace()} vaut null et le recuit ne paie qu'un test par fenêtre.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public final class TraceRecuit {
+
+    /** Types d'entrée */
+    static final byte FENETRE = 0;
+    static final byte RECHAUFFE = 1;
+
+    private final int[] recuits;
+    private final int[] iterations;
+    private final byte[] evenements;
+    private final double[] temperatures;
+    private final double[] coutsCourants;
+    private final double[] meilleursCouts;
+    private final double[] tauxAcceptation;
+
+    /** Nombre total d'entrées enregistrées (les plus anciennes sont écrasées) */
+    private long enregistrees = 0;
+
+    /** Numéro du recuit en cours (un par appel du recuit : cycle ILS, fil...) */
+    private int recuit = 0;
+
+    /**
+     * @param capacite le nombre d'entrées conservées
+     * @throws IllegalArgumentException si la capacité n'est pas strictement positive
+     */
+    TraceRecuit(int capacite) {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("La taille de la trace doit être strictement positive.");
+        }
+        recuits = new int[capacite];
+        iterations = new int[capacite];
+        evenements = new byte[capacite];
+        temperatures = new double[capacite];
+        coutsCourants = new double[capacite];
+        meilleursCouts = new double[capacite];
+        tauxAcceptation = new double[capacite];
+    }
+
+    /**
+     * Signale le début d'un nouveau recuit.
+     */
+    void nouveauRecuit() {
+        recuit++;
+    }
+
+    /**
+     * Enregistre une entrée ; {@code taux} vaut NaN pour une réchauffe.
+     */
+    void enregistrer(byte evenement, int iteration, double temperature,
+                     double coutCourant, double meilleurCout, double taux) {
+        int i = (int) (enregistrees % recuits.length);
+        recuits[i] = recuit;
+        iterations[i] = iteration;
+        evenements[i] = evenement;
+        temperatures[i] = temperature;
+        coutsCourants[i] = coutCourant;
+        meilleursCouts[i] = meilleurCout;
+        tauxAcceptation[i] = taux;
+        enregistrees++;
+    }
+
+    /**
+     * @return le nombre d'entrées conservées
+     */
+    public int taille() {
+        return (int) Math.min(enregistrees, recuits.length);
+    }
+
+    /**
+     * @return le nombre maximal d'entrées conservées
+     */
+    public int capacite() {
+        return recuits.length;
+    }
+
+    /**
+     * @return le nombre d'entrées écrasées faute de place
+     */
+    public long nombreEcrasees() {
+        return enregistrees - taille();
+    }
+
+    /**
+     * Vide la trace (la capacité est conservée).
+     */
+    public void vider() {
+        enregistrees = 0;
+        recuit = 0;
+    }
+
+    /**
+     * Écrit la trace au format CSV, de la plus ancienne entrée conservée à la plus récente :
+     * {@code recuit,iteration,evenement,temperature,cout_courant,meilleur_cout,taux_acceptation}
+     * (taux vide pour une réchauffe).
+     *
+     * @param sortie la destination
+     * @throws IOException si erreur d'écriture
+     */
+    public void ecrireCsv(Writer sortie) throws IOException {
+        sortie.write("recuit,iteration,evenement,temperature,cout_courant,meilleur_cout,taux_acceptation\n");
+        int taille = taille();
+        long premiere = enregistrees - taille;
+        for (int k = 0; k < taille; k++) {
+            int i = (int) ((premiere + k) % recuits.length);
+            sortie.write(recuits[i] + "," + iterations[i] + ","
+                    + (evenements[i] == RECHAUFFE ? "rechauffe" : "fenetre") + ","
+                    + String.format(Locale.ROOT, "%.6g,%.6f,%.6f,", temperatures[i], coutsCourants[i], meilleursCouts[i])
+                    + (Double.isNaN(tauxAcceptation[i]) ? "" : String.format(Locale.ROOT, "%.4f", tauxAcceptation[i]))
+                    + "\n");
+        }
+    }
+
+    /**
+     * Écrit la trace dans un fichier CSV (voir {@link #ecrireCsv(Writer)}).
+     *
+     * @param fichier le chemin du fichier de destination
+     * @throws IOException si erreur d'écriture
+     */
+    public void ecrireCsv(String fichier) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(fichier))) {
+            ecrireCsv(bw);
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package factory;
+
+import reseau.Reseau;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Analyseur en flux des fichiers de réseau, travaillant directement sur les octets.
+ * <p>
+ * Le fichier est lu par un {@link FileChannel} directement dans le tableau de travail,
+ * puis découpé en lignes avec les mêmes conventions que {@link java.io.BufferedReader#readLine()}
+ * ({@code \n}, {@code \r} ou {@code \r\n}). Une ligne ASCII bien formée est analysée sans
+ * passer par une {@code String} : seuls les noms sont matérialisés. Toute autre ligne
+ * (caractères non ASCII, erreur de format ou de valeur) est décodée en UTF-8 et confiée
+ * à l'analyse par chaînes de {@link ReseauFactory}, si bien que les validations et les
+ * messages d'erreur sont exactement ceux de cette dernière.
+ * <p>
+ * Pour les gros fichiers, {@link #analyserParallele} projette le fichier en mémoire et
+ * répartit la reconnaissance des lignes entre plusieurs fils ; seule l'application au
+ * réseau, qui impose l'ordre des déclarations, reste séquentielle.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class AnalyseurReseau {
+
+    /** Taille du tampon de lecture (les lignes plus longues agrandissent le tampon de travail) */
+    private static final int TAILLE_TAMPON = 1 << 20;
+
+    /** Résultats de {@link #lireDeclaration} */
+    private static final int LIGNE_VIDE = -1;
+    private static final int A_DECODER = -2;
+    private static final int TYPE_GENERATEUR = 0;
+    private static final int TYPE_MAISON = 1;
+    private static final int TYPE_CONNEXION = 2;
+
+    private static final byte[] GENERATEUR = ascii("generateur");
+    private static final byte[] MAISON = ascii("maison");
+    private static final byte[] CONNEXION = ascii("connexion");
+
+    /** Consommations valides, en majuscules, et leur forme octet */
+    private static final String[] CONSOMMATIONS = {"BASSE", "NORMAL", "FORTE"};
+    private static final byte[][] CONSOMMATIONS_OCTETS = {ascii("BASSE"), ascii("NORMAL"), ascii("FORTE")};
+
+    private final Reseau reseau;
+
+    /** Ordre des déclarations */
+    private boolean maisonsCommencees = false;
+    private boolean connexionsCommencees = false;
+
+    /** Numéro de la ligne en cours */
+    private int compteur = 0;
+
+    /**
+     * @param penalite le coefficient de pénalité du réseau à construire
+     */
+    AnalyseurReseau(double penalite) {
+        this.reseau = new Reseau(penalite);
+    }
+
+    /**
+     * Analyse un fichier complet (voir {@link ReseauFactory#parserReseau(double, String)}).
+     *
+     * @param fichier le chemin du fichier
+     * @return le réseau construit
+     * @throws java.io.FileNotFoundException si le fichier n'existe pas
+     * @throws IOException si erreur de lecture ou format invalide
+     */
+    Reseau analyser(String fichier) throws IOException {
+        try (FileInputStream flux = new FileInputStream(fichier);
+             FileChannel canal = flux.getChannel()) {
+            Declaration declaration = new Declaration();
+            new DecoupeurLignes() {
+                @Override
+                int lire(byte[] t, int depuis, int max) throws IOException {
+                    // lecture directe dans le tampon de travail, sans copie intermédiaire
+                    return canal.read(ByteBuffer.wrap(t, depuis, max));
+                }
+
+                @Override
+                void ligne(byte[] t, int debut, int fin) throws IOException {
+                    compteur++;
+                    int type = lireDeclaration(t, debut, fin, declaration);
+                    if (type == A_DECODER) {
+                        traiterLigne(new String(t, debut, fin - debut, StandardCharsets.UTF_8));
+                    } else if (type != LIGNE_VIDE) {
+                        appliquer(type, declaration.nom1, declaration.nom2, declaration.valeur);
+                    }
+                }
+            }.parcourir();
+        }
+        return reseau;
+    }
+
+    /**
+     * Analyse un fichier projeté en mémoire, découpé en morceaux aux fins de ligne.
+     * <p>
+     * Chaque morceau est découpé en déclarations par un fil de travail ; les déclarations
+     * sont ensuite appliquées au réseau dans l'ordre du fichier, par le fil appelant, avec
+     * les mêmes règles d'ordre et les mêmes messages que {@link #analyser(String)}. Au plus
+     * {@code 2 * nbFils} morceaux sont en vol, ce qui borne la mémoire intermédiaire.
+     *
+     * @param fichier le chemin du fichier
+     * @param nbFils le nombre de fils de découpage
+     * @param tailleMorceau la taille visée d'un morceau, en octets
+     * @return le réseau construit
+     * @throws java.io.FileNotFoundException si le fichier n'existe pas
+     * @throws IOException si erreur de lecture ou format invalide
+     */
+    Reseau analyserParallele(String fichier, int nbFils, int tailleMorceau) throws IOException {
+        try (FileInputStream flux = new FileInputStream(fichier);
+             FileChannel canal = flux.getChannel()) {
+            List<long[]> morceaux = decouperMorceaux(canal, tailleMorceau);
+            ExecutorService executeur = Executors.newFixedThreadPool(nbFils);
+            try {
+                ArrayDeque<Future<Lot>> enVol = new ArrayDeque<>();
+                int prochain = 0;
+                int base = 0; // lignes des morceaux déjà appliqués
+                while (prochain < morceaux.size() || !enVol.isEmpty()) {
+                    while (prochain < morceaux.size() && enVol.size() < 2 * nbFils) {
+                        long[] morceau = morceaux.get(prochain++);
+                        MappedByteBuffer projection = canal.map(FileChannel.MapMode.READ_ONLY,
+                                morceau[0], morceau[1] - morceau[0]);
+                        enVol.add(executeur.submit(() -> decouper(projection)));
+                    }
+                    Lot lot = enVol.poll().get();
+                    for (int i = 0; i < lot.taille; i++) {
+                        compteur = base + lot.lignes[i];
+                        if (lot.types[i] == A_DECODER) {
+                            traiterLigne(lot.noms1[i]);
+                        } else {
+                            appliquer(lot.types[i], lot.noms1[i], lot.noms2[i], lot.valeurs[i]);
+                        }
+                    }
+                    base += lot.nombreLignes;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Analyse interrompue");
+            } catch (ExecutionException e) {
+                throw new IOException("Échec d'un fil d'analyse", e.getCause());
+            } finally {
+                executeur.shutdownNow();
+            }
+        }
+        return reseau;
+    }
+
+    /**
+     * Découpe le fichier en morceaux {@code [debut, fin)} d'environ {@code tailleMorceau}
+     * octets, chacun se terminant juste après une fin de ligne (ou à la fin du fichier).
+     */
+    private static List<long[]> decouperMorceaux(FileChannel canal, int tailleMorceau) throws IOException {
+        long taille = canal.size();
+        List<long[]> morceaux = new ArrayList<>();
+        ByteBuffer lecture = ByteBuffer.allocate(1 << 16);
+        long debut = 0;
+        while (debut < taille) {
+            long fin = finDeLigneApres(canal, Math.min(debut + tailleMorceau, taille), taille, lecture);
+            if (fin - debut > Integer.MAX_VALUE) {
+                throw new IOException("Ligne trop longue après l'octet " + debut);
+            }
+            morceaux.add(new long[]{debut, fin});
+            debut = fin;
+        }
+        return morceaux;
+    }
+
+    /**
+     * @return la position qui suit la première fin de ligne ({@code \n}, {@code \r} ou
+     *         {@code \r\n}) commençant à partir de {@code position}, ou {@code taille}
+     */
+    private static long finDeLigneApres(FileChannel canal, long position, long taille,
+                                        ByteBuffer lecture) throws IOException {
+        boolean apresCR = false;
+        while (position < taille) {
+            lecture.clear();
+            int lus = canal.read(lecture, position);
+            if (lus <= 0) {
+                break;
+            }
+            for (int i = 0; i < lus; i++) {
+                byte b = lecture.get(i);
+                if (apresCR) {
+                    return b == '\n' ? position + i + 1 : position + i;
+                }
+                if (b == '\n') {
+                    return position + i + 1;
+                }
+                apresCR = b == '\r';
+            }
+            position += lus;
+        }
+        return taille;
+    }
+
+    /**
+     * Découpe un morceau projeté en déclarations, sans toucher au réseau (exécuté par un fil
+     * de travail).
+     */
+    private static Lot decouper(MappedByteBuffer projection) throws IOException {
+        Lot lot = new Lot();
+        Declaration declaration = new Declaration();
+        new DecoupeurLignes() {
+            @Override
+            int lire(byte[] t, int depuis, int max) {
+                int n = Math.min(max, projection.remaining());
+                if (n == 0) {
+                    return -1;
+                }
+                projection.get(t, depuis, n);
+                return n;
+            }
+
+            @Override
+            void ligne(byte[] t, int debut, int fin) {
+                int numero = ++lot.nombreLignes;
+                int type = lireDeclaration(t, debut, fin, declaration);
+                if (type == A_DECODER) {
+                    lot.ajouter(type, numero, new String(t, debut, fin - debut, StandardCharsets.UTF_8), null, 0);
+                } else if (type != LIGNE_VIDE) {
+                    lot.ajouter(type, numero, declaration.nom1, declaration.nom2, declaration.valeur);
+                }
+            }
+        }.parcourir();
+        return lot;
+    }
+
+    /**
+     * Traite une ligne décodée, avec les validations et messages de {@link ReseauFactory}.
+     *
+     * @param ligne la ligne brute
+     * @throws IOException si la ligne est invalide
+     */
+    void traiterLigne(String ligne) throws IOException {
+        ligne = ligne.trim();
+
+        if (ligne.isEmpty()) {
+            return;
+        }
+
+        String type = ReseauFactory.extraireType(ligne);
+
+        try {
+            switch (type) {
+                case "generateur": {
+                    if (maisonsCommencees || connexionsCommencees) {
+                        throw new IOException("Ligne " + compteur
+                                + " : les générateurs doivent être déclarés avant les maisons et connexions");
+                    }
+                    ReseauFactory.traiterGenerateur(ligne, reseau, compteur);
+                    break;
+                }
+                case "maison": {
+                    if (connexionsCommencees) {
+                        throw new IOException("Ligne " + compteur
+                                + " : les maisons doivent être déclarées avant les connexions");
+                    }
+                    maisonsCommencees = true;
+                    ReseauFactory.traiterMaison(ligne, reseau, compteur);
+                    break;
+                }
+                case "connexion": {
+                    connexionsCommencees = true;
+                    ReseauFactory.traiterConnexion(ligne, reseau, compteur);
+                    break;
+                }
+                default: {
+                    throw new IOException("Ligne " + compteur
+                            + " : type invalide. Attendu : generateur, maison ou connexion");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ligne " + compteur + " : " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new IOException("Ligne " + compteur + " : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applique une déclaration reconnue sur les octets, en vérifiant d'abord l'ordre des
+     * déclarations comme {@link #traiterLigne(String)}.
+     */
+    private void appliquer(int type, String nom1, String nom2, int valeur) throws IOException {
+        try {
+            switch (type) {
+                case TYPE_GENERATEUR: {
+                    if (maisonsCommencees || connexionsCommencees) {
+                        throw erreurOrdre("les générateurs doivent être déclarés avant les maisons et connexions");
+                    }
+                    reseau.addGenerateur(nom1, valeur);
+                    break;
+                }
+                case TYPE_MAISON: {
+                    if (connexionsCommencees) {
+                        throw erreurOrdre("les maisons doivent être déclarées avant les connexions");
+                    }
+                    maisonsCommencees = true;
+                    reseau.addMaison(nom1, CONSOMMATIONS[valeur]);
+                    break;
+                }
+                default: {
+                    connexionsCommencees = true;
+                    ReseauFactory.connecter(reseau, nom1, nom2);
+                }
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Ligne " + compteur + " : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Erreur d'ordre, avec le double préfixe de ligne produit par {@link #traiterLigne(String)}.
+     */
+    private IOException erreurOrdre(String message) {
+        IOException cause = new IOException("Ligne " + compteur + " : " + message);
+        return new IOException("Ligne " + compteur + " : " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Reconnaît sur les octets une ligne ASCII bien formée, à deux paramètres valides.
+     * L'ordre des déclarations n'est pas vérifié ici (voir {@link #appliquer}).
+     *
+     * @param declaration reçoit les noms et la capacité ou l'indice de consommation
+     * @return le type de déclaration, {@code LIGNE_VIDE}, ou {@code A_DECODER} si la ligne
+     *         doit passer par l'analyse par chaînes
+     */
+    private static int lireDeclaration(byte[] t, int debut, int fin, Declaration declaration) {
+        for (int i = debut; i < fin; i++) {
+            if (t[i] < 0) {
+                return A_DECODER; // octet non ASCII : décodage UTF-8 nécessaire
+            }
+        }
+        // même rognage que String.trim() sur de l'ASCII
+        while (debut < fin && t[debut] <= ' ') debut++;
+        while (fin > debut && t[fin - 1] <= ' ') fin--;
+        if (debut == fin) {
+            return LIGNE_VIDE;
+        }
+
+        int ouvrante = debut;
+        while (ouvrante < fin && t[ouvrante] != '(') ouvrante++;
+        int fermante = fin - 1;
+        while (fermante > ouvrante && t[fermante] != ')') fermante--;
+        if (ouvrante == fin || fermante == ouvrante || t[fin - 1] != '.') {
+            return A_DECODER;
+        }
+
+        // exactement une virgule, suivie d'au moins un octet (split(",") supprime les champs vides finaux)
+        int virgule = -1;
+        for (int i = ouvrante + 1; i < fermante; i++) {
+            if (t[i] == ',') {
+                if (virgule >= 0) return A_DECODER;
+                virgule = i;
+            }
+        }
+        if (virgule < 0 || virgule == fermante - 1) {
+            return A_DECODER;
+        }
+
+        int debutType = debut;
+        int finType = ouvrante;
+        while (debutType < finType && t[debutType] <= ' ') debutType++;
+        while (finType > debutType && t[finType - 1] <= ' ') finType--;
+
+        int debut1 = ouvrante + 1;
+        int fin1 = virgule;
+        while (debut1 < fin1 && t[debut1] <= ' ') debut1++;
+        while (fin1 > debut1 && t[fin1 - 1] <= ' ') fin1--;
+        int debut2 = virgule + 1;
+        int fin2 = fermante;
+        while (debut2 < fin2 && t[debut2] <= ' ') debut2++;
+        while (fin2 > debut2 && t[fin2 - 1] <= ' ') fin2--;
+
+        if (egal(t, debutType, finType, GENERATEUR)) {
+            int capacite = entierPositif(t, debut2, fin2);
+            if (capacite <= 0) return A_DECODER;
+            declaration.nom1 = chaine(t, debut1, fin1);
+            declaration.nom2 = null;
+            declaration.valeur = capacite;
+            return TYPE_GENERATEUR;
+        }
+
+        if (egal(t, debutType, finType, MAISON)) {
+            int classe = consommation(t, debut2, fin2);
+            if (classe < 0) return A_DECODER;
+            declaration.nom1 = chaine(t, debut1, fin1);
+            declaration.nom2 = null;
+            declaration.valeur = classe;
+            return TYPE_MAISON;
+        }
+
+        if (egal(t, debutType, finType, CONNEXION)) {
+            declaration.nom1 = chaine(t, debut1, fin1);
+            declaration.nom2 = chaine(t, debut2, fin2);
+            declaration.valeur = 0;
+            return TYPE_CONNEXION;
+        }
+
+        return A_DECODER;
+    }
+
+    /**
+     * Lit un entier décimal ASCII (signe + facultatif), comme {@link Integer#parseInt(String)}.
+     *
+     * @return sa valeur, ou -1 si le champ est vide, invalide ou trop grand
+     */
+    private static int entierPositif(byte[] t, int debut, int fin) {
+        if (debut < fin && t[debut] == '+') debut++;
+        if (debut == fin) return -1;
+        long valeur = 0;
+        for (int i = debut; i < fin; i++) {
+            int chiffre = t[i] - '0';
+            if (chiffre < 0 || chiffre > 9) return -1;
+            valeur = valeur * 10 + chiffre;
+            if (valeur > Integer.MAX_VALUE) return -1;
+        }
+        return (int) valeur;
+    }
+
+    /**
+     * Reconnaît une consommation, sans tenir compte de la casse.
+     *
+     * @return l'indice dans {@code CONSOMMATIONS}, ou -1
+     */
+    private static int consommation(byte[] t, int debut, int fin) {
+        for (int c = 0; c < CONSOMMATIONS_OCTETS.length; c++) {
+            byte[] attendu = CONSOMMATIONS_OCTETS[c];
+            if (fin - debut != attendu.length) continue;
+            int i = 0;
+            while (i < attendu.length) {
+                int b = t[debut + i];
+                if (b >= 'a' && b <= 'z') b -= 'a' - 'A';
+                if (b != attendu[i]) break;
+                i++;
+            }
+            if (i == attendu.length) return c;
+        }
+        return -1;
+    }
+
+    private static boolean egal(byte[] t, int debut, int fin, byte[] mot) {
+        if (fin - debut != mot.length) return false;
+        for (int i = 0; i < mot.length; i++) {
+            if (t[debut + i] != mot[i]) return false;
+        }
+        return true;
+    }
+
+    private static String chaine(byte[] t, int debut, int fin) {
+        return new String(t, debut, fin - debut, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Déclaration reconnue sur les octets (réutilisée d'une ligne à l'autre) */
+    private static final class Declaration {
+        String nom1;
+        String nom2;
+        int valeur;
+    }
+
+    /** Déclarations d'un morceau, numérotées relativement au début du morceau */
+    private static final class Lot {
+        int nombreLignes = 0;
+        int taille = 0;
+        int[] types = new int[1024];
+        int[] lignes = new int[1024];
+        String[] noms1 = new String[1024];
+        String[] noms2 = new String[1024];
+        int[] valeurs = new int[1024];
+
+        void ajouter(int type, int ligne, String nom1, String nom2, int valeur) {
+            if (taille == types.length) {
+                int capacite = 2 * taille;
+                types = Arrays.copyOf(types, capacite);
+                lignes = Arrays.copyOf(lignes, capacite);
+                noms1 = Arrays.copyOf(noms1, capacite);
+                noms2 = Arrays.copyOf(noms2, capacite);
+                valeurs = Arrays.copyOf(valeurs, capacite);
+            }
+            types[taille] = type;
+            lignes[taille] = ligne;
+            noms1[taille] = nom1;
+            noms2[taille] = nom2;
+            valeurs[taille] = valeur;
+            taille++;
+        }
+    }
+
+    /**
+     * Découpe un flux d'octets en lignes avec les conventions de
+     * {@link java.io.BufferedReader#readLine()} ({@code \n}, {@code \r} ou {@code \r\n}).
+     */
+    private abstract static class DecoupeurLignes {
+
+        /**
+         * Lit au plus {@code max} octets dans {@code t} à partir de {@code depuis}.
+         *
+         * @return le nombre d'octets lus, ou -1 en fin de flux
+         */
+        abstract int lire(byte[] t, int depuis, int max) throws IOException;
+
+        /** Reçoit la ligne {@code [debut, fin)} du tampon, sans sa fin de ligne */
+        abstract void ligne(byte[] t, int debut, int fin) throws IOException;
+
+        final void parcourir() throws IOException {
+            byte[] tampon = new byte[TAILLE_TAMPON];
+            int debut = 0;   // début de la ligne en cours
+            int pos = 0;     // prochain octet à examiner
+            int fin = 0;     // fin des octets valides
+            boolean ignorerLF = false;
+
+            while (true) {
+                while (pos < fin) {
+                    byte b = tampon[pos];
+                    if (b == '\n' && ignorerLF) {
+                        // second octet d'un \r\n
+                        ignorerLF = false;
+                        debut = ++pos;
+                    } else if (b == '\n' || b == '\r') {
+                        ligne(tampon, debut, pos);
+                        ignorerLF = b == '\r';
+                        debut = ++pos;
+                    } else {
+                        ignorerLF = false;
+                        pos++;
+                    }
+                }
+
+                // on garde la ligne incomplète en tête du tampon de travail
+                if (debut > 0) {
+                    System.arraycopy(tampon, debut, tampon, 0, fin - debut);
+                    fin -= debut;
+                    pos -= debut;
+                    debut = 0;
+                }
+                if (fin == tampon.length) {
+                    tampon = Arrays.copyOf(tampon, tampon.length * 2);
+                }
+
+                int lus = lire(tampon, fin, tampon.length - fin);
+                if (lus < 0) {
+                    break;
+                }
+                fin += lus;
+            }
+
+            if (debut < fin) {
+                ligne(tampon, debut, fin);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package factory;
+
+import reseau.Consommation;
+import reseau.Generateur;
+import reseau.Maison;
+import reseau.Reseau;
+
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Format binaire compact des réseaux, pour les points de sauvegarde.
+ * <p>
+ * Structure (entiers gros-boutistes) :
+ * <ol>
+ * <li>en-tête : magique {@code "RSXB"}, version, nombre de générateurs {@code G},
+ * nombre de maisons {@code M}, taille en octets de la table des noms ;</li>
+ * <li>table des noms : les {@code G + M} longueurs UTF-8, puis les octets des noms
+ * (générateurs puis maisons, dans l'ordre de leurs identifiants) ;</li>
+ * <li>les {@code G} capacités ;</li>
+ * <li>les {@code M} classes de consommation (un octet : indice dans {@link Consommation}) ;</li>
+ * <li>les {@code M} affectations maison → générateur ({@code -1} si non connectée),
+ * comme {@link Reseau#getInstantane()}.</li>
+ * </ol>
+ * Chaque section est transférée d'un bloc par les vues {@link java.nio.IntBuffer} d'un
+ * unique tampon ; le réseau est reconstruit sans analyse ni validation de texte.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+final class FormatBinaire {
+
+    /** "RSXB" */
+    static final int MAGIQUE = 0x52535842;
+    static final int VERSION = 1;
+
+    /** Magique, version, G, M, taille de la table des noms */
+    private static final int TAILLE_EN_TETE = 5 * Integer.BYTES;
+
+    private static final Consommation[] CLASSES = Consommation.values();
+
+    private FormatBinaire() {}
+
+    /**
+     * Écrit un réseau au format binaire (voir {@link ReseauFactory#reseauToBinaire}).
+     *
+     * @param fichier le chemin du fichier de destination
+     * @param r le réseau à sauvegarder
+     * @throws IOException si erreur d'écriture
+     */
+    static void ecrire(String fichier, Reseau r) throws IOException {
+        ecrire(fichier, r, false);
+    }
+
+    /**
+     * Écrit un réseau au format binaire, en forçant au besoin l'écriture sur disque avant
+     * de rendre la main (points de contrôle de {@link JournalReseau}).
+     *
+     * @param fichier le chemin du fichier de destination
+     * @param r le réseau à sauvegarder
+     * @param synchroniser true pour attendre que les octets soient sur disque
+     * @throws IOException si erreur d'écriture
+     */
+    static void ecrire(String fichier, Reseau r, boolean synchroniser) throws IOException {
+        List<Generateur> generateurs = r.getGenerateurs();
+        List<Maison> maisons = r.getMaisonsParId();
+        int nbGenerateurs = generateurs.size();
+        int nbMaisons = maisons.size();
+
+        byte[][] noms = new byte[nbGenerateurs + nbMaisons][];
+        int[] longueurs = new int[noms.length];
+        long tailleNoms = 0;
+        for (int i = 0; i < noms.length; i++) {
+            String nom = i < nbGenerateurs ? generateurs.get(i).getNom() : maisons.get(i - nbGenerateurs).getNom();
+            noms[i] = nom.getBytes(StandardCharsets.UTF_8);
+            longueurs[i] = noms[i].length;
+            tailleNoms += noms[i].length;
+        }
+
+        long taille = TAILLE_EN_TETE + (long) Integer.BYTES * noms.length + tailleNoms
+                + (long) Integer.BYTES * nbGenerateurs + nbMaisons + (long) Integer.BYTES * nbMaisons;
+        if (taille > Integer.MAX_VALUE) {
+            throw new IOException("Réseau trop grand pour le format binaire");
+        }
+
+        ByteBuffer tampon = ByteBuffer.allocate((int) taille);
+        tampon.putInt(MAGIQUE).putInt(VERSION).putInt(nbGenerateurs).putInt(nbMaisons).putInt((int) tailleNoms);
+        ecrireEntiers(tampon, longueurs);
+        for (byte[] nom : noms) {
+            tampon.put(nom);
+        }
+
+        int[] capacites = new int[nbGenerateurs];
+        for (int g = 0; g < nbGenerateurs; g++) {
+            capacites[g] = generateurs.get(g).getCapacite();
+        }
+        ecrireEntiers(tampon, capacites);
+
+        for (Maison m : maisons) {
+            tampon.put((byte) classe(m));
+        }
+        ecrireEntiers(tampon, r.getInstantane());
+
+        tampon.flip();
+        try (FileChannel canal = FileChannel.open(Paths.get(fichier), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            if (synchroniser) {
+                canal.force(true);
+            }
+        }
+    }
+
+    /**
+     * Lit un réseau au format binaire (voir {@link ReseauFactory#parserReseauBinaire}).
+     *
+     * @param penalite le coefficient de pénalité du réseau
+     * @param fichier le chemin du fichier
+     * @return le réseau reconstruit, coût calculé
+     * @throws java.io.FileNotFoundException si le fichier n'existe pas
+     * @throws IOException si erreur de lecture ou fichier invalide
+     */
+    static Reseau lire(double penalite, String fichier) throws IOException {
+        ByteBuffer tampon;
+        try (FileInputStream flux = new FileInputStream(fichier);
+             FileChannel canal = flux.getChannel()) {
+            long taille = canal.size();
+            if (taille > Integer.MAX_VALUE) {
+                throw new IOException("Fichier binaire trop grand : " + fichier);
+            }
+            tampon = ByteBuffer.allocate((int) taille);
+            while (tampon.hasRemaining()) {
+                if (canal.read(tampon) < 0) {
+                    throw new EOFException("Fichier binaire tronqué : " + fichier);
+                }
+            }
+            tampon.flip();
+        }
+
+        try {
+            if (tampon.getInt() != MAGIQUE) {
+                throw new IOException("Fichier binaire de réseau invalide : " + fichier);
+            }
+            int version = tampon.getInt();
+            if (version != VERSION) {
+                throw new IOException("Version du format binaire non prise en charge : " + version);
+            }
+            int nbGenerateurs = tampon.getInt();
+            int nbMaisons = tampon.getInt();
+            int tailleNoms = tampon.getInt();
+            if (nbGenerateurs < 0 || nbMaisons < 0 || tailleNoms < 0
+                    || (long) nbGenerateurs + nbMaisons > Integer.MAX_VALUE
+                    || tailleNoms > tampon.remaining()) {
+                // tailleNoms est vérifiée avant d'allouer la table des noms
+                throw new IOException("En-tête du format binaire invalide");
+            }
+
+            int[] longueurs = lireEntiers(tampon, nbGenerateurs + nbMaisons);
+            byte[] octetsNoms = new byte[tailleNoms];
+            tampon.get(octetsNoms);
+            int[] capacites = lireEntiers(tampon, nbGenerateurs);
+            byte[] classes = new byte[nbMaisons];
+            tampon.get(classes);
+            int[] affectation = lireEntiers(tampon, nbMaisons);
+            if (tampon.hasRemaining()) {
+                throw new IOException("Octets superflus en fin de fichier binaire");
+            }
+
+            List<Generateur> generateurs = new ArrayList<>(nbGenerateurs);
+            List<Maison> maisons = new ArrayList<>(nbMaisons);
+            int position = 0;
+            for (int i = 0; i < longueurs.length; i++) {
+                if (longueurs[i] < 0 || longueurs[i] > tailleNoms - position) {
+                    throw new IOException("Table des noms invalide");
+                }
+                String nom = new String(octetsNoms, position, longueurs[i], StandardCharsets.UTF_8);
+                position += longueurs[i];
+                if (i < nbGenerateurs) {
+                    if (capacites[i] <= 0) {
+                        throw new IOException("Capacité invalide pour le générateur " + nom + " : " + capacites[i]);
+                    }
+                    generateurs.add(new Generateur(nom, capacites[i]));
+                } else {
+                    int classe = classes[i - nbGenerateurs];
+                    if (classe < 0 || classe >= CLASSES.length) {
+                        throw new IOException("Classe de consommation invalide : " + classe);
+                    }
+                    maisons.add(new Maison(nom, CLASSES[classe]));
+                }
+            }
+            if (position != tailleNoms) {
+                throw new IOException("Table des noms invalide : " + (tailleNoms - position) + " octets inutilisés");
+            }
+            Reseau r = Reseau.construire(penalite, generateurs, maisons, affectation);
+            return r;
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Fichier binaire tronqué : " + fichier);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("Fichier binaire incohérent : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return l'indice dans {@link Consommation} de la consommation de la maison
+     */
+    private static int classe(Maison m) {
+        for (int c = 0; c < CLASSES.length; c++) {
+            if (CLASSES[c].getConsommation() == m.getConsommation()) return c;
+        }
+        throw new IllegalStateException("Consommation inconnue : " + m.getConsommation());
+    }
+
+    /** Copie un tableau d'un bloc à la position courante du tampon */
+    private static void ecrireEntiers(ByteBuffer tampon, int[] valeurs) {
+        tampon.asIntBuffer().put(valeurs);
+        tampon.position(tampon.position() + Integer.BYTES * valeurs.length);
+    }
+
+    /** Lit d'un bloc {@code n} entiers à la position courante du tampon */
+    private static int[] lireEntiers(ByteBuffer tampon, int n) {
+        if ((long) n * Integer.BYTES > tampon.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int[] valeurs = new int[n];
+        tampon.asIntBuffer().get(valeurs);
+        tampon.position(tampon.position() + Integer.BYTES * n);
+        return valeurs;
+    }
+}
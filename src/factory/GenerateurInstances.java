@@ -0,0 +1,278 @@
+package factory;
+
+import reseau.Consommation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Générateur d'instances synthétiques, pour mesurer le passage à l'échelle.
+ * <p>
+ * Une instance comporte {@code nbGenerateurs} générateurs {@code gen1, gen2, ...} et
+ * {@code nbMaisons} maisons {@code maison1, maison2, ...}, chacune connectée à un générateur
+ * tiré au hasard (ou non connectée, voir {@link #setConnexions(boolean)}). Sont réglables :
+ * <ul>
+ * <li>la répartition BASSE / NORMAL / FORTE des consommations ;</li>
+ * <li>le ratio de capacité : capacité totale / charge totale (au moins 1, pour que le réseau
+ * soit chargeable). Chaque générateur recevant au moins 10 kW, le ratio obtenu peut dépasser
+ * le ratio demandé quand la charge par générateur est faible ;</li>
+ * <li>la dispersion des capacités : chaque générateur reçoit une part de la capacité totale
+ * proportionnelle à un poids tiré uniformément dans {@code [1 - d, 1 + d]}. Les capacités
+ * sont des multiples de 10 kW, comme les consommations.</li>
+ * </ul>
+ * La sortie est produite en flux, au format texte ({@link ReseauFactory#parserReseau}) ou
+ * binaire ({@link ReseauFactory#parserReseauBinaire}) : seules les capacités sont gardées en
+ * mémoire, les maisons sont retirées du même flux aléatoire à chaque passe. Une même graine
+ * donne la même instance dans les deux formats.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public final class GenerateurInstances {
+
+    /** Ratio capacité totale / charge totale par défaut */
+    public static final double RATIO_CAPACITE = 1.3;
+
+    /** Dispersion par défaut des capacités */
+    public static final double DISPERSION_CAPACITES = 0.5;
+
+    private static final Consommation[] CLASSES = Consommation.values();
+    /** Pas des capacités, en kW */
+    private static final int PAS_CAPACITE = 10;
+
+    private final int nbGenerateurs;
+    private final int nbMaisons;
+    private final long graine;
+
+    private double proportionBasse = 1.0 / 3;
+    private double proportionNormal = 1.0 / 3;
+    private double proportionForte = 1.0 / 3;
+    private double ratioCapacite = RATIO_CAPACITE;
+    private double dispersionCapacites = DISPERSION_CAPACITES;
+    private boolean connexions = true;
+
+    /**
+     * @param nbGenerateurs le nombre de générateurs, au moins 1
+     * @param nbMaisons le nombre de maisons, positif ou nul
+     * @param graine la graine des tirages
+     * @throws IllegalArgumentException si un effectif est invalide
+     */
+    public GenerateurInstances(int nbGenerateurs, int nbMaisons, long graine) {
+        verifier(nbGenerateurs >= 1, "Le nombre de générateurs doit être au moins 1.");
+        verifier(nbMaisons >= 0, "Le nombre de maisons doit être positif ou nul.");
+        this.nbGenerateurs = nbGenerateurs;
+        this.nbMaisons = nbMaisons;
+        this.graine = graine;
+    }
+
+    /**
+     * Fixe la répartition des consommations. Les proportions sont normalisées.
+     *
+     * @param basse poids des maisons BASSE
+     * @param normal poids des maisons NORMAL
+     * @param forte poids des maisons FORTE
+     * @throws IllegalArgumentException si un poids est négatif ou si tous sont nuls
+     */
+    public void setProportions(double basse, double normal, double forte) {
+        verifier(basse >= 0 && normal >= 0 && forte >= 0, "Les proportions doivent être positives ou nulles.");
+        double total = basse + normal + forte;
+        verifier(total > 0, "Au moins une proportion doit être strictement positive.");
+        this.proportionBasse = basse / total;
+        this.proportionNormal = normal / total;
+        this.proportionForte = forte / total;
+    }
+
+    public double getRatioCapacite() {
+        return ratioCapacite;
+    }
+
+    /**
+     * @param ratioCapacite capacité totale / charge totale visée, au moins 1 (dépassée si des
+     *                      générateurs doivent être relevés à la capacité minimale de 10 kW)
+     * @throws IllegalArgumentException si la valeur est inférieure à 1
+     */
+    public void setRatioCapacite(double ratioCapacite) {
+        verifier(ratioCapacite >= 1, "Le ratio de capacité doit être au moins 1.");
+        this.ratioCapacite = ratioCapacite;
+    }
+
+    public double getDispersionCapacites() {
+        return dispersionCapacites;
+    }
+
+    /**
+     * @param dispersionCapacites demi-largeur relative des poids des capacités, dans [0, 1[
+     *                            (0 : capacités égales)
+     * @throws IllegalArgumentException si la valeur est hors de [0, 1[
+     */
+    public void setDispersionCapacites(double dispersionCapacites) {
+        verifier(dispersionCapacites >= 0 && dispersionCapacites < 1,
+                "La dispersion des capacités doit être dans [0, 1[.");
+        this.dispersionCapacites = dispersionCapacites;
+    }
+
+    public boolean isConnexions() {
+        return connexions;
+    }
+
+    /**
+     * @param connexions true pour connecter chaque maison à un générateur tiré au hasard,
+     *                   false pour produire des maisons non connectées
+     */
+    public void setConnexions(boolean connexions) {
+        this.connexions = connexions;
+    }
+
+    /**
+     * Écrit l'instance au format texte.
+     *
+     * @param fichier le chemin du fichier de destination
+     * @throws IOException si erreur d'écriture
+     */
+    public void ecrireTexte(String fichier) throws IOException {
+        int[] capacites = capacites();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(fichier, StandardCharsets.UTF_8), 1 << 16)) {
+            for (int g = 0; g < nbGenerateurs; g++) {
+                bw.write("generateur(" + nomGenerateur(g) + "," + capacites[g] + ").");
+                bw.newLine();
+            }
+
+            SplittableRandom classes = flux(1);
+            for (int m = 0; m < nbMaisons; m++) {
+                bw.write("maison(" + nomMaison(m) + "," + CLASSES[classe(classes)].name() + ").");
+                bw.newLine();
+            }
+
+            if (connexions) {
+                SplittableRandom affectation = flux(2);
+                for (int m = 0; m < nbMaisons; m++) {
+                    bw.write("connexion(" + nomMaison(m) + "," + nomGenerateur(affectation.nextInt(nbGenerateurs)) + ").");
+                    bw.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Écrit l'instance au format binaire de {@link ReseauFactory#reseauToBinaire}.
+     *
+     * @param fichier le chemin du fichier de destination
+     * @throws IOException si erreur d'écriture ou instance trop grande pour le format
+     */
+    public void ecrireBinaire(String fichier) throws IOException {
+        long tailleNoms = 0;
+        for (int g = 0; g < nbGenerateurs; g++) tailleNoms += nomGenerateur(g).length();
+        for (int m = 0; m < nbMaisons; m++) tailleNoms += nomMaison(m).length();
+        if (20 + tailleNoms + 9L * nbMaisons + 8L * nbGenerateurs > Integer.MAX_VALUE) {
+            throw new IOException("Instance trop grande pour le format binaire");
+        }
+
+        int[] capacites = capacites();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fichier), 1 << 16))) {
+            out.writeInt(FormatBinaire.MAGIQUE);
+            out.writeInt(FormatBinaire.VERSION);
+            out.writeInt(nbGenerateurs);
+            out.writeInt(nbMaisons);
+            out.writeInt((int) tailleNoms);
+
+            for (int g = 0; g < nbGenerateurs; g++) out.writeInt(nomGenerateur(g).length());
+            for (int m = 0; m < nbMaisons; m++) out.writeInt(nomMaison(m).length());
+            // noms ASCII : un octet par caractère
+            for (int g = 0; g < nbGenerateurs; g++) out.writeBytes(nomGenerateur(g));
+            for (int m = 0; m < nbMaisons; m++) out.writeBytes(nomMaison(m));
+
+            for (int capacite : capacites) out.writeInt(capacite);
+
+            SplittableRandom classes = flux(1);
+            for (int m = 0; m < nbMaisons; m++) out.writeByte(classe(classes));
+
+            SplittableRandom affectation = flux(2);
+            for (int m = 0; m < nbMaisons; m++) {
+                out.writeInt(connexions ? affectation.nextInt(nbGenerateurs) : -1);
+            }
+        }
+    }
+
+    /**
+     * Calcule les capacités : la capacité totale visée est répartie au prorata des poids par
+     * arrondi cumulé au pas de 10 kW (la somme des arrondis couvre toujours la charge).
+     * Une part arrondie à moins d'un pas est relevée à 10 kW, pour qu'aucun générateur ne soit
+     * de capacité nulle : la capacité totale dépasse alors la cible d'autant, sans être
+     * reprise sur les autres générateurs.
+     */
+    private int[] capacites() {
+        long charge = 0;
+        SplittableRandom classes = flux(1);
+        for (int m = 0; m < nbMaisons; m++) {
+            charge += CLASSES[classe(classes)].getConsommation();
+        }
+        double cible = ratioCapacite * charge;
+
+        double[] poids = new double[nbGenerateurs];
+        double totalPoids = 0;
+        SplittableRandom tirages = flux(0);
+        for (int g = 0; g < nbGenerateurs; g++) {
+            poids[g] = 1 + dispersionCapacites * (2 * tirages.nextDouble() - 1);
+            totalPoids += poids[g];
+        }
+
+        int[] capacites = new int[nbGenerateurs];
+        double cumul = 0;
+        long pasPrecedents = 0;
+        for (int g = 0; g < nbGenerateurs; g++) {
+            cumul += poids[g];
+            long pas = Math.round(cible * cumul / totalPoids / PAS_CAPACITE);
+            long capacite = (pas - pasPrecedents) * PAS_CAPACITE;
+            pasPrecedents = pas;
+            if (capacite > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Capacité trop grande pour le générateur " + nomGenerateur(g));
+            }
+            capacites[g] = (int) Math.max(PAS_CAPACITE, capacite);
+        }
+        return capacites;
+    }
+
+    /**
+     * @return l'indice dans {@link Consommation} de la consommation d'une maison
+     */
+    private int classe(SplittableRandom tirages) {
+        double u = tirages.nextDouble();
+        if (u < proportionBasse) return 0;
+        if (u < proportionBasse + proportionNormal || proportionForte == 0) return 1;
+        return 2;
+    }
+
+    /**
+     * Flux aléatoire indépendant, relu depuis son début à chaque passe :
+     * 0 pour les capacités, 1 pour les consommations, 2 pour les connexions.
+     */
+    private SplittableRandom flux(int numero) {
+        SplittableRandom racine = new SplittableRandom(graine);
+        long g = 0;
+        for (int i = 0; i <= numero; i++) {
+            g = racine.nextLong();
+        }
+        return new SplittableRandom(g);
+    }
+
+    private static String nomGenerateur(int g) {
+        return "gen" + (g + 1);
+    }
+
+    private static String nomMaison(int m) {
+        return "maison" + (m + 1);
+    }
+
+    private static void verifier(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package factory;
+
+import reseau.Consommation;
+import reseau.Generateur;
+import reseau.Maison;
+import reseau.Reseau;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Réseau persistant : un point de contrôle au format binaire (voir {@link FormatBinaire})
+ * complété par un journal des modifications en ajout seul.
+ * <p>
+ * Chaque modification passée par cet objet est appliquée au réseau puis ajoutée au journal
+ * sous forme d'un enregistrement {@code longueur | type | données | CRC32}. Les
+ * enregistrements sont écrits et forcés sur disque par lots de {@code tailleLot} (ou par
+ * {@link #synchroniser()}) : le coût de persistance suit le rythme des modifications, pas la
+ * taille du réseau. Une panne ne perd au plus que le lot en cours.
+ * <p>
+ * À l'ouverture, le point de contrôle est chargé puis le journal rejoué ; une fin de journal
+ * tronquée ou corrompue (écriture interrompue) est ignorée et coupée. L'en-tête du journal
+ * porte l'empreinte CRC32 du point de contrôle auquel il s'applique : un journal périmé,
+ * laissé par une panne pendant {@link #pointDeControle()}, est écarté au lieu d'être
+ * rejoué deux fois.
+ * <p>
+ * Les maisons et générateurs sont désignés dans le journal par leurs identifiants denses,
+ * que le format binaire conserve. Les modifications faites directement sur le réseau, sans
+ * passer par cet objet, ne sont pas journalisées.
+ *
+ * @author Votre nom
+ * @version 1.0
+ */
+public final class JournalReseau implements Closeable {
+
+    /** "RSXJ" */
+    private static final int MAGIQUE = 0x5253584A;
+    private static final int VERSION = 1;
+    /** Magique, version, empreinte du point de contrôle */
+    private static final int TAILLE_EN_TETE = 2 * Integer.BYTES + Long.BYTES;
+
+    /** Types d'enregistrement */
+    private static final byte AJOUT_GENERATEUR = 1;
+    private static final byte AJOUT_MAISON = 2;
+    private static final byte CONNEXION = 3;
+
+    /** Empreinte d'un point de contrôle absent */
+    private static final long SANS_POINT_DE_CONTROLE = -1;
+
+    private static final Consommation[] CLASSES = Consommation.values();
+
+    private final Reseau reseau;
+    private final Path pointDeControle;
+    private final Path journal;
+    private final int tailleLot;
+
+    private FileChannel canal;
+    /** Enregistrements pas encore écrits */
+    private ByteBuffer enAttente = ByteBuffer.allocate(1 << 16);
+    private int nombreEnAttente = 0;
+    /** Position, dans {@code enAttente}, de l'enregistrement en cours d'écriture */
+    private int debutEnCours;
+
+    private JournalReseau(Reseau reseau, Path pointDeControle, Path journal, int tailleLot) {
+        this.reseau = reseau;
+        this.pointDeControle = pointDeControle;
+        this.journal = journal;
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Ouvre un réseau persistant : charge le point de contrôle s'il existe (sinon part d'un
+     * réseau vide), rejoue le journal, puis continue à journaliser à sa suite.
+     *
+     * @param penalite le coefficient de pénalité du réseau
+     * @param pointDeControle le chemin du point de contrôle binaire
+     * @param journal le chemin du journal
+     * @param tailleLot le nombre d'enregistrements écrits et forcés sur disque ensemble
+     * @return le réseau persistant
+     * @throws IllegalArgumentException si {@code tailleLot < 1}
+     * @throws IOException si erreur de lecture ou point de contrôle invalide
+     */
+    public static JournalReseau ouvrir(double penalite, String pointDeControle, String journal, int tailleLot)
+            throws IOException {
+        verifierTailleLot(tailleLot);
+        Path cheminPoint = Paths.get(pointDeControle);
+        Path cheminJournal = Paths.get(journal);
+
+        Reseau reseau;
+        long empreinte;
+        if (Files.exists(cheminPoint)) {
+            reseau = FormatBinaire.lire(penalite, pointDeControle);
+            empreinte = empreinte(cheminPoint);
+        } else {
+            reseau = new Reseau(penalite);
+            empreinte = SANS_POINT_DE_CONTROLE;
+        }
+
+        JournalReseau j = new JournalReseau(reseau, cheminPoint, cheminJournal, tailleLot);
+        long finValide = Files.exists(cheminJournal) ? j.rejouer(empreinte) : -1;
+        if (finValide < 0) {
+            // journal absent, illisible ou périmé : on repart d'un journal vide
+            creerJournal(cheminJournal, empreinte);
+            finValide = TAILLE_EN_TETE;
+        }
+        j.canal = FileChannel.open(cheminJournal, StandardOpenOption.WRITE);
+        j.canal.truncate(finValide);
+        j.canal.position(finValide);
+        return j;
+    }
+
+    /**
+     * Rend persistant un réseau existant : écrit son point de contrôle et démarre un
+     * journal vide.
+     *
+     * @param reseau le réseau, qui ne doit plus être modifié qu'à travers l'objet rendu
+     * @param pointDeControle le chemin du point de contrôle binaire
+     * @param journal le chemin du journal
+     * @param tailleLot le nombre d'enregistrements écrits et forcés sur disque ensemble
+     * @return le réseau persistant
+     * @throws IllegalArgumentException si {@code tailleLot < 1}
+     * @throws IOException si erreur d'écriture
+     */
+    public static JournalReseau creer(Reseau reseau, String pointDeControle, String journal, int tailleLot)
+            throws IOException {
+        verifierTailleLot(tailleLot);
+        JournalReseau j = new JournalReseau(reseau, Paths.get(pointDeControle), Paths.get(journal), tailleLot);
+        j.ecrirePointDeControle();
+        return j;
+    }
+
+    /**
+     * @return le réseau maintenu par ce journal
+     */
+    public Reseau getReseau() {
+        return reseau;
+    }
+
+    /**
+     * Ajoute un générateur au réseau et au journal.
+     *
+     * @param nom le nom du générateur
+     * @param capacite sa capacité en kW
+     * @throws IllegalArgumentException si la capacité n'est pas strictement positive
+     * @throws IOException si erreur d'écriture du journal
+     */
+    public void addGenerateur(String nom, int capacite) throws IOException {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("la capacité doit être supérieure à 0");
+        }
+        reseau.addGenerateur(nom, capacite);
+        byte[] octets = nom.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer e = debutEnregistrement(AJOUT_GENERATEUR, Integer.BYTES + octets.length + Integer.BYTES);
+        e.putInt(octets.length).put(octets).putInt(capacite);
+        finEnregistrement();
+    }
+
+    /**
+     * Ajoute une maison non connectée au réseau et au journal.
+     *
+     * @param nom le nom de la maison
+     * @param conso sa consommation (BASSE, NORMAL ou FORTE)
+     * @throws IllegalArgumentException si la consommation n'est pas valide
+     * @throws IllegalStateException si la capacité du réseau est insuffisante
+     * @throws IOException si erreur d'écriture du journal
+     */
+    public void addMaison(String nom, String conso) throws IOException {
+        Consommation c = Consommation.valueOf(conso);
+        reseau.addMaison(new Maison(nom, c));
+        byte[] octets = nom.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer e = debutEnregistrement(AJOUT_MAISON, Integer.BYTES + octets.length + 1);
+        e.putInt(octets.length).put(octets).put((byte) c.ordinal());
+        finEnregistrement();
+    }
+
+    /**
+     * Connecte une maison à un générateur, qu'elle soit déjà connectée ou non.
+     *
+     * @param maison le nom de la maison
+     * @param generateur le nom du générateur
+     * @throws IllegalArgumentException si la maison ou le générateur n'existe pas
+     * @throws IOException si erreur d'écriture du journal
+     */
+    public void connecter(String maison, String generateur) throws IOException {
+        Maison m = reseau.getMaison(maison);
+        Generateur g = reseau.getGenerateur(generateur);
+        if (m == null || g == null) {
+            throw new IllegalArgumentException("maison et/ou générateur inexistant : " + maison + ", " + generateur);
+        }
+        int idMaison = reseau.idMaison(m);
+        int idGenerateur = reseau.idGenerateur(g);
+        appliquerConnexion(idMaison, idGenerateur);
+        journaliserConnexion(idMaison, idGenerateur);
+    }
+
+    /**
+     * Déconnecte une maison de son générateur (sans effet si elle n'est pas connectée).
+     *
+     * @param maison le nom de la maison
+     * @throws IllegalArgumentException si la maison n'existe pas
+     * @throws IOException si erreur d'écriture du journal
+     */
+    public void deconnecter(String maison) throws IOException {
+        Maison m = reseau.getMaison(maison);
+        if (m == null) {
+            throw new IllegalArgumentException("maison inexistante : " + maison);
+        }
+        int idMaison = reseau.idMaison(m);
+        appliquerConnexion(idMaison, -1);
+        journaliserConnexion(idMaison, -1);
+    }
+
+    /**
+     * Écrit les enregistrements en attente et force leur écriture sur disque.
+     *
+     * @throws IOException si erreur d'écriture
+     */
+    public void synchroniser() throws IOException {
+        if (nombreEnAttente == 0) {
+            return;
+        }
+        enAttente.flip();
+        while (enAttente.hasRemaining()) {
+            canal.write(enAttente);
+        }
+        enAttente.clear();
+        nombreEnAttente = 0;
+        canal.force(false);
+    }
+
+    /**
+     * Remplace le point de contrôle par l'état courant du réseau et vide le journal.
+     * <p>
+     * Le nouveau point de contrôle et le nouveau journal sont écrits à côté des anciens,
+     * puis mis en place par renommages atomiques.
+     *
+     * @throws IOException si erreur d'écriture
+     */
+    public void pointDeControle() throws IOException {
+        synchroniser();
+        canal.close();
+        ecrirePointDeControle();
+    }
+
+    /**
+     * Synchronise le journal et le ferme. Le réseau reste utilisable, sans journalisation.
+     *
+     * @throws IOException si erreur d'écriture
+     */
+    @Override
+    public void close() throws IOException {
+        if (canal.isOpen()) {
+            try {
+                synchroniser();
+            } finally {
+                canal.close();
+            }
+        }
+    }
+
+    /**
+     * Écrit le point de contrôle et un journal vide à son empreinte, puis rouvre le journal.
+     */
+    private void ecrirePointDeControle() throws IOException {
+        Path pointTemporaire = Paths.get(pointDeControle + ".tmp");
+        Path journalTemporaire = Paths.get(journal + ".tmp");
+        FormatBinaire.ecrire(pointTemporaire.toString(), reseau, true);
+        creerJournal(journalTemporaire, empreinte(pointTemporaire));
+        // une panne entre ces deux renommages laisse un journal périmé, écarté à l'ouverture
+        Files.move(pointTemporaire, pointDeControle, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(journalTemporaire, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal = FileChannel.open(journal, StandardOpenOption.WRITE);
+        canal.position(canal.size());
+    }
+
+    /**
+     * Rejoue le journal sur le réseau.
+     *
+     * @param empreinte l'empreinte du point de contrôle chargé
+     * @return la position qui suit le dernier enregistrement valide, ou -1 si le journal
+     *         est illisible ou ne correspond pas au point de contrôle
+     */
+    private long rejouer(long empreinte) throws IOException {
+        ByteBuffer tampon = ByteBuffer.wrap(Files.readAllBytes(journal));
+        if (tampon.remaining() < TAILLE_EN_TETE || tampon.getInt() != MAGIQUE
+                || tampon.getInt() != VERSION || tampon.getLong() != empreinte) {
+            return -1;
+        }
+
+        CRC32 crc = new CRC32();
+        int position = TAILLE_EN_TETE;
+        while (tampon.remaining() >= Integer.BYTES) {
+            int longueur = tampon.getInt();
+            if (longueur < 1 || longueur > tampon.remaining() - Integer.BYTES) {
+                break; // enregistrement tronqué
+            }
+            crc.reset();
+            crc.update(tampon.array(), tampon.position(), longueur);
+            ByteBuffer donnees = tampon.slice(tampon.position(), longueur);
+            tampon.position(tampon.position() + longueur);
+            if ((int) crc.getValue() != tampon.getInt()) {
+                break; // enregistrement corrompu
+            }
+            appliquerEnregistrement(donnees);
+            position = tampon.position();
+        }
+        reseau.calculCout();
+        return position;
+    }
+
+    /**
+     * Applique un enregistrement relu dont le CRC est valide.
+     */
+    private void appliquerEnregistrement(ByteBuffer e) throws IOException {
+        try {
+            byte type = e.get();
+            switch (type) {
+                case AJOUT_GENERATEUR: {
+                    String nom = lireNom(e);
+                    reseau.addGenerateur(nom, e.getInt());
+                    break;
+                }
+                case AJOUT_MAISON: {
+                    String nom = lireNom(e);
+                    reseau.addMaison(new Maison(nom, CLASSES[e.get()]));
+                    break;
+                }
+                case CONNEXION: {
+                    int maison = e.getInt();
+                    int generateur = e.getInt();
+                    if (maison < 0 || maison >= reseau.getMaisonsParId().size()
+                            || generateur < -1 || generateur >= reseau.getGenerateurs().size()) {
+                        throw new IOException("Connexion invalide dans le journal : " + maison + ", " + generateur);
+                    }
+                    appliquerConnexion(maison, generateur);
+                    break;
+                }
+                default:
+                    throw new IOException("Type d'enregistrement inconnu dans le journal : " + type);
+            }
+        } catch (RuntimeException ex) {
+            throw new IOException("Journal incohérent avec le point de contrôle : " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Connecte la maison {@code maison} au générateur {@code generateur} (-1 : déconnecte).
+     */
+    private void appliquerConnexion(int maison, int generateur) {
+        Maison m = reseau.getMaisonsParId().get(maison);
+        Generateur actuel = reseau.getConnexions().get(m);
+        Generateur cible = generateur < 0 ? null : reseau.getGenerateurs().get(generateur);
+        if (actuel == cible) {
+            return;
+        }
+        if (actuel == null) {
+            reseau.addConnexion(m, cible);
+        } else if (cible == null) {
+            reseau.supprConnexion(m, actuel);
+        } else {
+            reseau.changeConnexion(m, actuel, cible);
+        }
+    }
+
+    private void journaliserConnexion(int maison, int generateur) throws IOException {
+        ByteBuffer e = debutEnregistrement(CONNEXION, 2 * Integer.BYTES);
+        e.putInt(maison).putInt(generateur);
+        finEnregistrement();
+    }
+
+    /**
+     * Réserve un enregistrement dans le tampon des enregistrements en attente.
+     *
+     * @param taille la taille des données, hors type
+     * @return le tampon, positionné sur les données
+     */
+    private ByteBuffer debutEnregistrement(byte type, int taille) {
+        int besoin = 2 * Integer.BYTES + 1 + taille;
+        if (enAttente.remaining() < besoin) {
+            ByteBuffer plusGrand = ByteBuffer.allocate(Math.max(2 * enAttente.capacity(), enAttente.position() + besoin));
+            enAttente.flip();
+            plusGrand.put(enAttente);
+            enAttente = plusGrand;
+        }
+        debutEnCours = enAttente.position();
+        enAttente.putInt(1 + taille).put(type);
+        return enAttente;
+    }
+
+    /**
+     * Termine l'enregistrement en cours par son CRC, et écrit le lot s'il est complet.
+     */
+    private void finEnregistrement() throws IOException {
+        int debutDonnees = debutEnCours + Integer.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(enAttente.array(), debutDonnees, enAttente.position() - debutDonnees);
+        enAttente.putInt((int) crc.getValue());
+        if (++nombreEnAttente >= tailleLot) {
+            synchroniser();
+        }
+    }
+
+    private static String lireNom(ByteBuffer e) {
+        byte[] octets = new byte[e.getInt()];
+        e.get(octets);
+        return new String(octets, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Crée un journal vide pour le point de contrôle d'empreinte donnée.
+     */
+    private static void creerJournal(Path chemin, long empreinte) throws IOException {
+        ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE);
+        enTete.putInt(MAGIQUE).putInt(VERSION).putLong(empreinte).flip();
+        try (FileChannel c = FileChannel.open(chemin, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (enTete.hasRemaining()) {
+                c.write(enTete);
+            }
+            c.force(true);
+        }
+    }
+
+    /**
+     * @return le CRC32 du contenu du fichier
+     */
+    private static long empreinte(Path fichier) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(fichier));
+        return crc.getValue();
+    }
+
+    private static void verifierTailleLot(int tailleLot) {
+        if (tailleLot < 1) {
+            throw new IllegalArgumentException("La taille de lot doit être au moins 1");
+        }
+    }
+}
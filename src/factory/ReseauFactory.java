@@ -18,6 +18,13 @@ import java.util.Map;
  */
 public class ReseauFactory {
 
+    /** Taille de fichier à partir de laquelle {@link #parserReseau} analyse en parallèle */
+    static final long SEUIL_PARALLELE = 64L << 20;
+
+    /** Bornes de la taille d'un morceau pour l'analyse parallèle */
+    private static final int MORCEAU_MIN = 1 << 20;
+    private static final int MORCEAU_MAX = 64 << 20;
+
     private ReseauFactory() {}
 
     /**
@@ -30,6 +37,11 @@ public class ReseauFactory {
      * <li>Déclarations des connexions : {@code connexion(maison, generateur).}</li>
      * </ol>
      * La consommation doit être BASSE, NORMAL ou FORTE.
+     * <p>
+     * Le fichier est lu en flux, octet par octet, par {@link AnalyseurReseau} : seules les
+     * lignes non ASCII ou invalides passent par l'analyse par chaînes ci-dessous. Au-delà de
+     * {@value #SEUIL_PARALLELE} octets, sur une machine multicœur, le fichier est analysé par
+     * {@link #parserReseauParallele(double, String, int)} avec un fil par cœur.
      *
      * @param penalite le coefficient de pénalité du réseau
      * @param fichier le chemin du fichier à parser
@@ -39,64 +51,48 @@ public class ReseauFactory {
      */
     public static Reseau parserReseau(double penalite, String fichier)
             throws FileNotFoundException, IOException {
+        int coeurs = Runtime.getRuntime().availableProcessors();
+        if (coeurs > 1 && new File(fichier).length() >= SEUIL_PARALLELE) {
+            return parserReseauParallele(penalite, fichier, coeurs);
+        }
+        return new AnalyseurReseau(penalite).analyser(fichier);
+    }
 
-        Reseau r = new Reseau(penalite);
-
-        boolean maisonsCommencees = false;
-        boolean connexionsCommencees = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(fichier))) {
-            String ligne;
-            int compteur = 0;
-
-            while ((ligne = br.readLine()) != null) {
-                compteur++;
-                ligne = ligne.trim();
-
-                if (ligne.isEmpty()) {
-                    continue;
-                }
-
-                String type = extraireType(ligne);
-
-                try {
-                    switch (type) {
-                        case "generateur": {
-                            if (maisonsCommencees || connexionsCommencees) {
-                                throw new IOException("Ligne " + compteur
-                                        + " : les générateurs doivent être déclarés avant les maisons et connexions");
-                            }
-                            traiterGenerateur(ligne, r, compteur);
-                            break;
-                        }
-                        case "maison": {
-                            if (connexionsCommencees) {
-                                throw new IOException("Ligne " + compteur
-                                        + " : les maisons doivent être déclarées avant les connexions");
-                            }
-                            maisonsCommencees = true;
-                            traiterMaison(ligne, r, compteur);
-                            break;
-                        }
-                        case "connexion": {
-                            connexionsCommencees = true;
-                            traiterConnexion(ligne, r, compteur);
-                            break;
-                        }
-                        default: {
-                            throw new IOException("Ligne " + compteur
-                                    + " : type invalide. Attendu : generateur, maison ou connexion");
-                        }
-                    }
-                } catch (IllegalArgumentException e) {
-                    throw new IOException("Ligne " + compteur + " : " + e.getMessage(), e);
-                } catch (Exception e) {
-                    throw new IOException("Ligne " + compteur + " : " + e.getMessage(), e);
-                }
-            }
+    /**
+     * Parse un réseau électrique en projetant le fichier en mémoire et en répartissant
+     * l'analyse des lignes sur plusieurs fils.
+     * <p>
+     * Le fichier est découpé en morceaux aux fins de ligne ; chaque morceau est analysé par
+     * un fil, puis les déclarations sont appliquées au réseau dans l'ordre du fichier. Le
+     * résultat, les règles d'ordre et les messages d'erreur (numéros de ligne compris) sont
+     * ceux de {@link #parserReseau(double, String)}.
+     *
+     * @param penalite le coefficient de pénalité du réseau
+     * @param fichier le chemin du fichier à parser
+     * @param nbFils le nombre de fils d'analyse
+     * @return le réseau construit
+     * @throws IllegalArgumentException si {@code nbFils < 1}
+     * @throws FileNotFoundException si le fichier n'existe pas
+     * @throws IOException si erreur de lecture ou format invalide
+     */
+    public static Reseau parserReseauParallele(double penalite, String fichier, int nbFils)
+            throws FileNotFoundException, IOException {
+        if (nbFils < 1) {
+            throw new IllegalArgumentException("Le nombre de fils doit être au moins 1");
         }
+        long taille = new File(fichier).length();
+        // quelques morceaux par fil pour équilibrer la charge
+        int tailleMorceau = (int) Math.max(MORCEAU_MIN, Math.min(MORCEAU_MAX, taille / (4L * nbFils)));
+        return parserReseauParallele(penalite, fichier, nbFils, tailleMorceau);
+    }
 
-        return r;
+    /**
+     * Variante de {@link #parserReseauParallele(double, String, int)} à taille de morceau
+     * imposée (utilisée par les tests pour multiplier les frontières de morceaux).
+     */
+    static Reseau parserReseauParallele(double penalite, String fichier, int nbFils, int tailleMorceau)
+            throws IOException {
+        return new AnalyseurReseau(penalite).analyserParallele(fichier, nbFils, tailleMorceau);
     }
 
     /**
@@ -106,7 +102,7 @@ public class ReseauFactory {
      * @return le type (generateur, maison, ou connexion)
      * @throws IllegalArgumentException si le format est invalide
      */
-    private static String extraireType(String ligne) throws IllegalArgumentException {
+    static String extraireType(String ligne) throws IllegalArgumentException {
         if (!ligne.contains("(")) {
             throw new IllegalArgumentException("parenthèse ouvrante manquante");
         }
@@ -121,7 +117,7 @@ public class ReseauFactory {
      * @param compteur le numéro de ligne
      * @throws IllegalArgumentException si le format ou les valeurs sont invalides
      */
-    private static void traiterGenerateur(String ligne, Reseau r, int compteur)
+    static void traiterGenerateur(String ligne, Reseau r, int compteur)
             throws IllegalArgumentException {
         String[] data = recupererDonnees(ligne);
         validerNombreParametres(data, 2, compteur);
@@ -150,7 +146,7 @@ public class ReseauFactory {
      * @param compteur le numéro de ligne
      * @throws Exception si le format ou les valeurs sont invalides
      */
-    private static void traiterMaison(String ligne, Reseau r, int compteur) throws Exception {
+    static void traiterMaison(String ligne, Reseau r, int compteur) throws Exception {
         String[] data = recupererDonnees(ligne);
         validerNombreParametres(data, 2, compteur);
 
@@ -172,18 +168,32 @@ public class ReseauFactory {
      * @param compteur le numéro de ligne
      * @throws IllegalArgumentException si la connexion est invalide
      */
-    private static void traiterConnexion(String ligne, Reseau r, int compteur)
+    static void traiterConnexion(String ligne, Reseau r, int compteur)
             throws IllegalArgumentException {
         String[] data = recupererDonnees(ligne);
         validerNombreParametres(data, 2, compteur);
 
-        String elem1 = data[0].trim();
-        String elem2 = data[1].trim();
+        connecter(r, data[0].trim(), data[1].trim());
+    }
 
-        if (r.maisonDansReseau(elem1) && r.generateurDansReseau(elem2)) {
-            r.addConnexion(elem1, elem2);
-        } else if (r.maisonDansReseau(elem2) && r.generateurDansReseau(elem1)) {
-            r.addConnexion(elem2, elem1);
+    /**
+     * Connecte une maison et un générateur donnés dans un ordre quelconque.
+     *
+     * @param r le réseau cible
+     * @param elem1 le nom de la maison ou du générateur
+     * @param elem2 le nom de l'autre élément
+     * @throws IllegalArgumentException si la maison ou le générateur n'existe pas
+     */
+    static void connecter(Reseau r, String elem1, String elem2) throws IllegalArgumentException {
+        Maison maison = r.getMaison(elem1);
+        Generateur generateur = r.getGenerateur(elem2);
+        if (maison == null || generateur == null) {
+            maison = r.getMaison(elem2);
+            generateur = r.getGenerateur(elem1);
+        }
+
+        if (maison != null && generateur != null) {
+            r.addConnexion(maison, generateur);
         } else {
             throw new IllegalArgumentException("maison et/ou générateur inexistant : "
                     + elem1 + ", " + elem2);
@@ -290,4 +300,34 @@ public class ReseauFactory {
             }
         }
     }
+
+    /**
+     * Sauvegarde un réseau dans un fichier binaire compact (voir {@link FormatBinaire}).
+     * <p>
+     * Contrairement à {@link #reseauToFile(String, Reseau)}, le fichier conserve l'ordre des
+     * identifiants et les maisons non connectées ; il se recharge sans analyse de texte.
+     * Le format texte reste le format d'échange.
+     *
+     * @param fichier le chemin du fichier de destination
+     * @param r le réseau à sauvegarder
+     * @throws IOException si erreur d'écriture
+     */
+    public static void reseauToBinaire(String fichier, Reseau r) throws IOException {
+        FormatBinaire.ecrire(fichier, r);
+    }
+
+    /**
+     * Charge un réseau depuis un fichier écrit par {@link #reseauToBinaire(String, Reseau)}.
+     * Le coût du réseau chargé est calculé.
+     *
+     * @param penalite le coefficient de pénalité du réseau
+     * @param fichier le chemin du fichier binaire
+     * @return le réseau reconstruit
+     * @throws FileNotFoundException si le fichier n'existe pas
+     * @throws IOException si erreur de lecture, fichier tronqué ou incohérent
+     */
+    public static Reseau parserReseauBinaire(double penalite, String fichier)
+            throws FileNotFoundException, IOException {
+        return FormatBinaire.lire(penalite, fichier);
+    }
 }
@@ -0,0 +1,86 @@
+package factory;
+
+import org.junit.jupiter.api.Test;
+import reseau.Generateur;
+import reseau.Maison;
+import reseau.Reseau;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests pour le générateur d'instances synthétiques.
+ */
+class GenerateurInstancesTest {
+
+    /*
+     * Une même graine donne la même instance aux formats texte et binaire, avec le ratio
+     * de capacité et la répartition des consommations demandés.
+     */
+    @Test
+    void testInstanceReproductibleDansLesDeuxFormats() throws Exception {
+        GenerateurInstances generateur = new GenerateurInstances(7, 500, 42);
+        generateur.setRatioCapacite(1.5);
+        generateur.setProportions(0, 1, 1);
+
+        File texte = File.createTempFile("instance", ".txt");
+        File binaire = File.createTempFile("instance", ".bin");
+        try {
+            generateur.ecrireTexte(texte.getAbsolutePath());
+            generateur.ecrireBinaire(binaire.getAbsolutePath());
+            Reseau depuisTexte = ReseauFactory.parserReseau(10, texte.getAbsolutePath());
+            Reseau depuisBinaire = ReseauFactory.parserReseauBinaire(10, binaire.getAbsolutePath());
+
+            assertEquals(7, depuisTexte.getGenerateurs().size());
+            assertEquals(500, depuisTexte.getMaisons().size());
+            for (int g = 0; g < 7; g++) {
+                Generateur attendu = depuisTexte.getGenerateurs().get(g);
+                assertEquals(attendu.getNom(), depuisBinaire.getGenerateurs().get(g).getNom());
+                assertEquals(attendu.getCapacite(), depuisBinaire.getGenerateurs().get(g).getCapacite());
+                assertEquals(0, attendu.getCapacite() % 10);
+            }
+            for (Maison m : depuisTexte.getMaisons()) {
+                assertTrue(m.getConsommation() != 10);
+                assertEquals(depuisTexte.getConnexions().get(m).getNom(),
+                        depuisBinaire.getConnexions().get(depuisBinaire.getMaison(m.getNom())).getNom());
+            }
+            assertEquals(1.5, (double) depuisTexte.getCapacite() / depuisTexte.getCharge(), 0.01);
+
+            // même graine et mêmes réglages : même fichier, octet pour octet
+            GenerateurInstances memesReglages = new GenerateurInstances(7, 500, 42);
+            memesReglages.setRatioCapacite(1.5);
+            memesReglages.setProportions(0, 1, 1);
+            memesReglages.ecrireTexte(binaire.getAbsolutePath());
+            assertEquals(Files.readString(texte.toPath()), Files.readString(binaire.toPath()));
+        } finally {
+            texte.delete();
+            binaire.delete();
+        }
+        assertThrows(IllegalArgumentException.class, () -> generateur.setRatioCapacite(0.9));
+    }
+
+    /*
+     * Avec plus de générateurs que la charge n'en remplit, chacun reçoit au moins 10 kW :
+     * la capacité totale dépasse alors le ratio demandé.
+     */
+    @Test
+    void testCapaciteMinimaleParGenerateur() throws Exception {
+        GenerateurInstances generateur = new GenerateurInstances(50, 10, 3);
+        generateur.setProportions(1, 0, 0);
+
+        File texte = File.createTempFile("instance", ".txt");
+        try {
+            generateur.ecrireTexte(texte.getAbsolutePath());
+            Reseau reseau = ReseauFactory.parserReseau(10, texte.getAbsolutePath());
+            for (Generateur g : reseau.getGenerateurs()) {
+                assertTrue(g.getCapacite() >= 10);
+            }
+            assertEquals(500, reseau.getCapacite());
+            assertTrue((double) reseau.getCapacite() / reseau.getCharge() > generateur.getRatioCapacite());
+        } finally {
+            texte.delete();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package factory;
+
+import org.junit.jupiter.api.Test;
+import reseau.Reseau;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests pour le journal des modifications d'un réseau persistant.
+ */
+class JournalReseauTest {
+
+    /*
+     * Les modifications journalisées sont retrouvées à la réouverture, y compris après
+     * un point de contrôle, et une fin de journal tronquée est ignorée.
+     */
+    @Test
+    void testRejeuApresFermetureEtPointDeControle() throws Exception {
+        Path dossier = Files.createTempDirectory("journal_reseau");
+        String point = dossier.resolve("reseau.bin").toString();
+        String journal = dossier.resolve("reseau.journal").toString();
+        try {
+            Reseau initial = ReseauFactory.parserReseau(10, "./tests/resources/instance1.txt");
+            try (JournalReseau j = JournalReseau.creer(initial, point, journal, 4)) {
+                j.addGenerateur("gé9", 120);
+                j.addMaison("m9", "FORTE");
+                j.connecter("m9", "gé9");
+                j.deconnecter(initial.getMaisonsParId().get(0).getNom());
+            }
+            initial.calculCout();
+            int[] attendu = initial.getInstantane();
+
+            try (JournalReseau j = JournalReseau.ouvrir(10, point, journal, 4)) {
+                assertArrayEquals(attendu, j.getReseau().getInstantane());
+                assertEquals(initial.getCout(), j.getReseau().getCout(), 1e-9);
+                j.pointDeControle();
+                j.connecter(initial.getMaisonsParId().get(0).getNom(), "gé9");
+            }
+            attendu[0] = initial.getGenerateurs().size() - 1;
+
+            // écriture interrompue : quelques octets d'un enregistrement incomplet
+            byte[] octets = Files.readAllBytes(Path.of(journal));
+            Files.write(Path.of(journal), Arrays.copyOf(octets, octets.length + 5));
+
+            try (JournalReseau j = JournalReseau.ouvrir(10, point, journal, 1)) {
+                assertArrayEquals(attendu, j.getReseau().getInstantane());
+                assertEquals("gé9", j.getReseau().getGenerateurs().get(attendu[0]).getNom());
+            }
+            assertEquals(octets.length, Files.size(Path.of(journal)));
+        } finally {
+            for (File f : dossier.toFile().listFiles()) f.delete();
+            dossier.toFile().delete();
+        }
+    }
+}
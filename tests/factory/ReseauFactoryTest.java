@@ -1,5 +1,6 @@
 package factory;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
 import reseau.Consommation;
@@ -13,7 +14,11 @@ import java.io.IOException;
 import java.io.BufferedWriter;
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -96,4 +101,142 @@ class ReseauFactoryTest {
 
         fichierSortie.delete();
     }
+
+    private static Reseau parserContenu(String contenu) throws IOException {
+        File fichier = File.createTempFile("test_reseau", ".txt");
+        try {
+            Files.write(fichier.toPath(), contenu.getBytes(StandardCharsets.UTF_8));
+            return ReseauFactory.parserReseau(10, fichier.getAbsolutePath());
+        } finally {
+            fichier.delete();
+        }
+    }
+
+    /*
+     * Test pour vérifier que l'analyse en flux accepte toutes les fins de ligne, les espaces,
+     * la casse des consommations et les noms non ASCII.
+     */
+    @Test
+    void testAnalyseEnFluxFinsDeLigneEtNomsNonAscii() throws Exception {
+        Reseau reseau = parserContenu("generateur(g1,100).\r\n  generateur( gé2 , +50 ) .\rmaison(m1, normal).\n\n"
+                + "maison(maisonÉ,FORTE).\r\nconnexion(g1,m1).\nconnexion(maisonÉ,gé2).");
+
+        assertEquals(2, reseau.getGenerateurs().size());
+        assertEquals(50, reseau.getGenerateur("gé2").getCapacite());
+        assertEquals(Consommation.NORMAL.getConsommation(), reseau.getMaison("m1").getConsommation());
+        assertEquals(reseau.getGenerateur("g1"), reseau.getConnexions().get(reseau.getMaison("m1")));
+        assertEquals(reseau.getGenerateur("gé2"), reseau.getConnexions().get(reseau.getMaison("maisonÉ")));
+    }
+
+    /*
+     * Test pour vérifier que les messages d'erreur, préfixés du numéro de ligne, sont conservés.
+     */
+    @Test
+    void testAnalyseEnFluxMessagesErreur() {
+        IOException e = assertThrows(IOException.class,
+                () -> parserContenu("generateur(g1,100).\n\ngenerateur(g2,abc)."));
+        assertEquals("Ligne 3 : la capacité doit être un entier", e.getMessage());
+
+        e = assertThrows(IOException.class,
+                () -> parserContenu("generateur(g1,100).\nmaison(m1,BASSE).\ngenerateur(g2,10)."));
+        assertEquals("Ligne 3 : Ligne 3 : les générateurs doivent être déclarés avant les maisons et connexions",
+                e.getMessage());
+
+        e = assertThrows(IOException.class,
+                () -> parserContenu("generateur(g1,100).\r\nconnexion(m1,g1)."));
+        assertEquals("Ligne 2 : maison et/ou générateur inexistant : m1, g1", e.getMessage());
+
+        e = assertThrows(IOException.class,
+                () -> parserContenu("generateur(g1,100).\nmaison(m1,TRES_FORTE)."));
+        assertEquals("Ligne 2 : la consommation doit être BASSE, NORMAL ou FORTE", e.getMessage());
+    }
+
+    /*
+     * Test pour vérifier que l'analyse parallèle, avec des morceaux de quelques octets, donne
+     * le même réseau que l'analyse en flux, et des erreurs aux mêmes numéros de ligne.
+     */
+    @Test
+    void testAnalyseParalleleIdentiqueAuFlux() throws Exception {
+        Reseau attendu = ReseauFactory.parserReseau(10, "./tests/resources/instance7.txt");
+        for (int tailleMorceau : new int[]{1, 7, 64, 1 << 20}) {
+            Reseau reseau = ReseauFactory.parserReseauParallele(10, "./tests/resources/instance7.txt", 3, tailleMorceau);
+            assertEquals(attendu.getGenerateurs().size(), reseau.getGenerateurs().size());
+            assertEquals(attendu.getMaisons().size(), reseau.getMaisons().size());
+            for (Maison m : attendu.getMaisons()) {
+                Maison copie = reseau.getMaison(m.getNom());
+                assertEquals(m.getConsommation(), copie.getConsommation());
+                assertEquals(attendu.getConnexions().get(m).getNom(), reseau.getConnexions().get(copie).getNom());
+            }
+        }
+
+        File fichier = File.createTempFile("test_reseau", ".txt");
+        try {
+            Files.write(fichier.toPath(), "generateur(g1,100).\r\n\rmaison(m1,BASSE).\ngenerateur(g2,abc).\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            IOException e = assertThrows(IOException.class,
+                    () -> ReseauFactory.parserReseauParallele(10, fichier.getAbsolutePath(), 2, 5));
+            assertEquals("Ligne 4 : Ligne 4 : les générateurs doivent être déclarés avant les maisons et connexions",
+                    e.getMessage());
+        } finally {
+            fichier.delete();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ReseauFactory.parserReseauParallele(10, "./tests/resources/instance7.txt", 0));
+    }
+
+    /*
+     * Test pour vérifier qu'un réseau sauvegardé au format binaire se recharge à l'identique,
+     * maisons non connectées comprises, et qu'un fichier tronqué ou d'en-tête corrompu est refusé.
+     */
+    @Test
+    void testFormatBinaireAllerRetour() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance7.txt");
+        reseau.addGenerateur("gé-supplémentaire", 50);
+        reseau.addMaison("m-isolée", "FORTE");
+        reseau.calculCout();
+
+        File fichier = File.createTempFile("test_reseau", ".bin");
+        try {
+            ReseauFactory.reseauToBinaire(fichier.getAbsolutePath(), reseau);
+            Reseau charge = ReseauFactory.parserReseauBinaire(10, fichier.getAbsolutePath());
+
+            assertEquals(reseau.getGenerateurs().size(), charge.getGenerateurs().size());
+            for (int g = 0; g < reseau.getGenerateurs().size(); g++) {
+                assertEquals(reseau.getGenerateurs().get(g).getNom(), charge.getGenerateurs().get(g).getNom());
+                assertEquals(reseau.getGenerateurs().get(g).getCapacite(), charge.getGenerateurs().get(g).getCapacite());
+            }
+            for (int m = 0; m < reseau.getMaisonsParId().size(); m++) {
+                assertEquals(reseau.getMaisonsParId().get(m).getNom(), charge.getMaisonsParId().get(m).getNom());
+                assertEquals(reseau.getMaisonsParId().get(m).getConsommation(),
+                        charge.getMaisonsParId().get(m).getConsommation());
+            }
+            assertArrayEquals(reseau.getInstantane(), charge.getInstantane());
+            assertFalse(charge.maisonConnecte(charge.getMaison("m-isolée")));
+            assertEquals(reseau.getCout(), charge.getCout(), 1e-9);
+
+            byte[] octets = Files.readAllBytes(fichier.toPath());
+            Files.write(fichier.toPath(), Arrays.copyOf(octets, octets.length - 3));
+            assertThrows(IOException.class, () -> ReseauFactory.parserReseauBinaire(10, fichier.getAbsolutePath()));
+
+            // taille de la table des noms démesurée : refusée avant toute allocation
+            byte[] enTeteCorrompu = octets.clone();
+            enTeteCorrompu[16] = 0x7F;
+            Files.write(fichier.toPath(), enTeteCorrompu);
+            IOException e = assertThrows(IOException.class,
+                    () -> ReseauFactory.parserReseauBinaire(10, fichier.getAbsolutePath()));
+            assertTrue(e.getMessage().contains("invalide"));
+
+            // un octet de plus dans la table des noms, que les longueurs ne consomment pas
+            ByteBuffer lu = ByteBuffer.wrap(octets);
+            int finNoms = 20 + 4 * (lu.getInt(8) + lu.getInt(12)) + lu.getInt(16);
+            ByteBuffer nomsEnTrop = ByteBuffer.allocate(octets.length + 1);
+            nomsEnTrop.put(octets, 0, finNoms).put((byte) 'x').put(octets, finNoms, octets.length - finNoms);
+            nomsEnTrop.putInt(16, lu.getInt(16) + 1);
+            Files.write(fichier.toPath(), nomsEnTrop.array());
+            e = assertThrows(IOException.class, () -> ReseauFactory.parserReseauBinaire(10, fichier.getAbsolutePath()));
+            assertTrue(e.getMessage().contains("Table des noms invalide"));
+        } finally {
+            fichier.delete();
+        }
+    }
 }
@@ -0,0 +1,105 @@
+package reseau;
+
+import factory.ReseauFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests pour la représentation compacte du réseau utilisée par l'optimisation.
+ */
+class NoyauReseauTest {
+
+    /*
+     * Le coût du noyau et l'évaluation des mouvements doivent correspondre au calcul de Reseau,
+     * et les connexions doivent être reportées à l'identique sur le réseau.
+     */
+    @Test
+    void testCoutEtMouvementsCoherentsAvecReseau() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance1.txt");
+        reseau.calculCout();
+        NoyauReseau noyau = NoyauReseau.depuis(reseau);
+        assertEquals(reseau.getCout(), noyau.cout(), 1e-9);
+
+        double coutAvant = noyau.cout();
+        double delta = noyau.deltaDeplacement(0, (noyau.generateur(0) + 1) % noyau.nombreGenerateurs());
+        noyau.changeConnexion(0, (noyau.generateur(0) + 1) % noyau.nombreGenerateurs());
+        assertEquals(coutAvant + delta, noyau.cout(), 1e-9);
+
+        coutAvant = noyau.cout();
+        delta = noyau.deltaSwap(0, 1);
+        noyau.swap(0, 1);
+        assertEquals(coutAvant + delta, noyau.cout(), 1e-9);
+
+        noyau.appliquer(reseau);
+        assertEquals(reseau.getCout(), noyau.cout(), 1e-9);
+        assertEquals(noyau.charge(0), reseau.getGenerateurs().get(0).getChargeActuelle());
+    }
+
+    /*
+     * Les maisons hors bande indexées par le noyau sont exactement celles dont le générateur
+     * a un taux hors de la bande, y compris après des déplacements.
+     */
+    @Test
+    void testMaisonsHorsBandeCoherentesApresMouvements() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance7.txt");
+        NoyauReseau noyau = NoyauReseau.depuis(reseau);
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int essai = 0; essai < 50; essai++) {
+            int m = random.nextInt(noyau.nombreMaisons());
+            noyau.changeConnexion(m, random.nextInt(noyau.nombreGenerateurs()));
+
+            double bas = noyau.tauxMoyen() - 0.15;
+            double haut = Math.min(noyau.tauxMoyen() + 0.15, 1.0);
+            Set<Integer> attendues = new HashSet<>();
+            for (int i = 0; i < noyau.nombreMaisons(); i++) {
+                int g = noyau.generateur(i);
+                if (g >= 0 && (noyau.taux(g) < bas || noyau.taux(g) > haut)) attendues.add(i);
+            }
+
+            Set<Integer> obtenues = new HashSet<>();
+            long nombre = noyau.nombreMaisonsHorsBande(bas, haut);
+            for (long rang = 0; rang < nombre; rang++) {
+                obtenues.add(noyau.maisonHorsBande(rang, bas, haut));
+            }
+            assertEquals(attendues.size(), nombre);
+            assertEquals(attendues, obtenues);
+        }
+    }
+
+    /*
+     * Annuler le journal ramène exactement au point de contrôle, valider en fixe un nouveau.
+     */
+    @Test
+    void testJournalPointDeControle() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance7.txt");
+        NoyauReseau noyau = NoyauReseau.depuis(reseau);
+        SplittableRandom random = new SplittableRandom(3);
+        int[] pointDeControle = noyau.copierAffectation();
+        double coutPointDeControle = noyau.cout();
+
+        noyau.ouvrirJournal();
+        for (int i = 0; i < 200; i++) {
+            noyau.changeConnexion(random.nextInt(noyau.nombreMaisons()), random.nextInt(noyau.nombreGenerateurs()));
+        }
+        assertTrue(noyau.tailleJournal() <= noyau.nombreMaisons());
+        noyau.annulerJournal();
+        assertArrayEquals(pointDeControle, noyau.copierAffectation());
+        assertEquals(coutPointDeControle, noyau.cout(), 1e-12);
+
+        noyau.changeConnexion(0, (noyau.generateur(0) + 1) % noyau.nombreGenerateurs());
+        noyau.validerJournal();
+        int[] valide = noyau.copierAffectation();
+        noyau.changeConnexion(1, (noyau.generateur(1) + 1) % noyau.nombreGenerateurs());
+        noyau.annulerJournal();
+        assertArrayEquals(valide, noyau.copierAffectation());
+
+        noyau.fermerJournal();
+        assertThrows(IllegalStateException.class, noyau::annulerJournal);
+    }
+}
@@ -24,4 +24,54 @@ class OptimisationTest {
         Reseau r = createReseau("./tests/resources/"+ instance +".txt");
         assertEquals(resultatAttendu, Optimisation.optimiser(r), 0.1);
     }
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/instanceCoutOptimal.csv", numLinesToSkip = 1)
+    void testInstancesParallele(String instance,double resultatAttendu) throws IOException {
+        Reseau r = createReseau("./tests/resources/"+ instance +".txt");
+        assertEquals(resultatAttendu, Optimisation.optimiserParallele(r, 2), 0.1);
+        r.calculCout();
+        assertEquals(resultatAttendu, r.getCout(), 0.1);
+    }
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/instanceCoutOptimal.csv", numLinesToSkip = 1)
+    void testInstancesEchangeRepliques(String instance,double resultatAttendu) throws IOException {
+        Reseau r = createReseau("./tests/resources/"+ instance +".txt");
+        assertEquals(resultatAttendu, Optimisation.optimiserEchangeRepliques(r, 3), 0.1);
+        r.calculCout();
+        assertEquals(resultatAttendu, r.getCout(), 0.1);
+    }
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/instanceCoutOptimal.csv", numLinesToSkip = 1)
+    void testInstancesParClasses(String instance,double resultatAttendu) throws IOException {
+        Reseau r = createReseau("./tests/resources/"+ instance +".txt");
+        int nbMaisons = r.getMaisons().size();
+        assertEquals(resultatAttendu, Optimisation.optimiserParClasses(r), 0.1);
+        assertEquals(nbMaisons, r.getConnexions().size());
+        r.calculCout();
+        assertEquals(resultatAttendu, r.getCout(), 0.1);
+    }
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/instanceCoutOptimal.csv", numLinesToSkip = 1)
+    void testInstancesExact(String instance,double resultatAttendu) throws IOException {
+        Reseau r = createReseau("./tests/resources/"+ instance +".txt");
+        assertEquals(resultatAttendu, Optimisation.optimiserExact(r), 0.01);
+        r.calculCout();
+        assertEquals(resultatAttendu, r.getCout(), 0.01);
+    }
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/instanceCoutOptimal.csv", numLinesToSkip = 1)
+    void testInstancesBorneInferieure(String instance,double resultatAttendu) throws IOException {
+        Reseau r = createReseau("./tests/resources/"+ instance +".txt");
+        ResultatOptimisation resultat = Optimisation.resoudre(r);
+        assertEquals(resultatAttendu, resultat.getCout(), 0.1);
+        assertTrue(resultat.getBorneInferieure() <= resultatAttendu + 0.01);
+        assertTrue(resultat.getEcart() >= 0);
+        r.calculCout();
+        assertEquals(resultat.getCout(), r.getCout(), 1e-9);
+    }
 }
@@ -0,0 +1,437 @@
+package reseau;
+
+import factory.GenerateurInstances;
+import factory.ReseauFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests de l'optimiseur instanciable : reproductibilité, indépendance des instances et paramètres.
+ */
+class OptimiseurTest {
+
+    private static ParametresOptimisation parametresSilencieux() {
+        ParametresOptimisation parametres = new ParametresOptimisation();
+        parametres.setVerbeux(false);
+        return parametres;
+    }
+
+    /*
+     * Paramètres sans résolution exacte préalable, pour exercer la métaheuristique sur les petites instances.
+     */
+    private static ParametresOptimisation parametresHeuristiques() {
+        ParametresOptimisation parametres = parametresSilencieux();
+        parametres.setTailleMaxExact(0);
+        return parametres;
+    }
+
+    /*
+     * Deux optimiseurs de même graine donnent la même solution, y compris lorsqu'ils tournent en même temps.
+     */
+    @Test
+    void testMemeGraineMemeResultatEnParallele() throws Exception {
+        Reseau r1 = ReseauFactory.parserReseau(10, "./tests/resources/instance4.txt");
+        Reseau r2 = ReseauFactory.parserReseau(10, "./tests/resources/instance4.txt");
+        double[] couts = new double[2];
+
+        Thread t1 = new Thread(() -> couts[0] = new Optimiseur(parametresHeuristiques(), 42L).optimiser(r1));
+        Thread t2 = new Thread(() -> couts[1] = new Optimiseur(parametresHeuristiques(), 42L).optimiser(r2));
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+
+        assertEquals(couts[0], couts[1]);
+        for (Maison m : r1.getMaisons()) {
+            assertEquals(r1.getConnexions().get(m).getNom(),
+                    r2.getConnexions().get(r2.getMaison(m.getNom())).getNom());
+        }
+    }
+
+    /*
+     * Les paramètres invalides sont refusés et l'optimiseur travaille sur sa propre copie.
+     */
+    @Test
+    void testParametres() {
+        ParametresOptimisation parametres = parametresSilencieux();
+        assertThrows(IllegalArgumentException.class, () -> parametres.setNbRestarts(0));
+        assertThrows(IllegalArgumentException.class, () -> parametres.setProbabiliteSwap(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new Optimiseur(null));
+
+        parametres.setNbRestarts(2);
+        Optimiseur optimiseur = new Optimiseur(parametres);
+        parametres.setNbRestarts(7);
+        assertEquals(2, optimiseur.getParametres().getNbRestarts());
+        assertFalse(optimiseur.getParametres().isVerbeux());
+    }
+
+    /*
+     * Un jeton déjà annulé laisse le réseau dans son état d'origine.
+     */
+    @Test
+    void testJetonAnnuleLaisseLeReseauIntact() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance1.txt");
+        Map<Maison, Generateur> avant = new HashMap<>(reseau.getConnexions());
+        JetonAnnulation jeton = new JetonAnnulation();
+        jeton.annuler();
+
+        double cout = new Optimiseur(parametresSilencieux()).optimiser(reseau, jeton);
+
+        assertEquals(avant, reseau.getConnexions());
+        assertEquals(reseau.getCout(), cout);
+    }
+
+    /*
+     * Le report d'une solution plus coûteuse qu'une affectation d'origine complète est
+     * annulé ; une solution moins coûteuse, ou une origine incomplète, est conservée.
+     */
+    @Test
+    void testReportAnnuleSiLOrigineCouteMoins() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance1.txt");
+        new Optimiseur(parametresSilencieux(), 3L).optimiser(reseau);
+        int[] optimum = reseau.getInstantane();
+        double coutOptimum = reseau.getCout();
+
+        NoyauReseau noyau = NoyauReseau.depuis(reseau);
+        for (int m = 0; m < noyau.nombreMaisons(); m++) noyau.changeConnexion(m, 0);
+        Optimiseur.reporter(noyau, reseau, optimum);
+        assertArrayEquals(optimum, reseau.getInstantane());
+        assertEquals(coutOptimum, reseau.getCout());
+        assertFalse(reseau.isTransactionEnCours());
+
+        int[] incomplete = optimum.clone();
+        incomplete[0] = -1;
+        noyau = NoyauReseau.depuis(reseau);
+        for (int m = 0; m < noyau.nombreMaisons(); m++) noyau.changeConnexion(m, 0);
+        int[] toutSurZero = noyau.copierAffectation();
+        Optimiseur.reporter(noyau, reseau, incomplete);
+        assertArrayEquals(toutSurZero, reseau.getInstantane());
+
+        noyau = NoyauReseau.depuis(reseau);
+        noyau.restaurerAffectation(optimum);
+        Optimiseur.reporter(noyau, reseau, toutSurZero);
+        assertArrayEquals(optimum, reseau.getInstantane());
+    }
+
+    /*
+     * Avec un budget de temps, l'optimiseur s'arrête à temps et reporte une solution complète sur le réseau.
+     */
+    @Test
+    void testDelaiRespecte() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance7.txt");
+        ParametresOptimisation parametres = parametresHeuristiques();
+        parametres.setNbRestarts(1000);
+
+        long debut = System.nanoTime();
+        double cout = new Optimiseur(parametres).optimiser(reseau, 100);
+        long dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+
+        assertTrue(dureeMillis < 2000, "durée : " + dureeMillis + " ms");
+        for (Maison m : reseau.getMaisons()) {
+            assertTrue(reseau.maisonConnecte(m));
+        }
+        reseau.calculCout();
+        assertEquals(reseau.getCout(), cout);
+    }
+
+    /*
+     * Un budget de nœuds insuffisant pour prouver l'optimum laisse le réseau intact.
+     */
+    @Test
+    void testExactBudgetEpuise() throws Exception {
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance1.txt");
+        Map<Maison, Generateur> avant = new HashMap<>(reseau.getConnexions());
+        ParametresOptimisation parametres = parametresSilencieux();
+        parametres.setBudgetNoeudsExact(1);
+
+        assertThrows(IllegalStateException.class, () -> new Optimiseur(parametres).optimiserExact(reseau));
+        assertEquals(avant, reseau.getConnexions());
+    }
+
+    /*
+     * Un réseau de quelques milliers de maisons est refusé par la résolution exacte, sans
+     * épuiser la mémoire, et reste intact.
+     */
+    @Test
+    void testExactRefuseLesGrandsReseaux() throws Exception {
+        File fichier = File.createTempFile("instance", ".txt");
+        try {
+            new GenerateurInstances(20, 3000, 7).ecrireTexte(fichier.getAbsolutePath());
+            Reseau reseau = ReseauFactory.parserReseau(10, fichier.getAbsolutePath());
+            Map<Maison, Generateur> avant = new HashMap<>(reseau.getConnexions());
+
+            assertThrows(IllegalStateException.class, () -> new Optimiseur(parametresSilencieux()).optimiserExact(reseau));
+            assertThrows(IllegalStateException.class, () -> Optimisation.optimiserExact(reseau));
+            assertEquals(avant, reseau.getConnexions());
+        } finally {
+            fichier.delete();
+        }
+    }
+
+    /*
+     * Sans résolution exacte, la borne inférieure suffit à prouver l'optimum d'une instance équilibrable,
+     * et reste valide sur les autres.
+     */
+    @Test
+    void testBorneInferieure() throws Exception {
+        Reseau equilibrable = ReseauFactory.parserReseau(10, "./tests/resources/instance3.txt");
+        ResultatOptimisation resultat = new Optimiseur(parametresHeuristiques(), 1L).resoudre(equilibrable);
+        assertTrue(resultat.isOptimumProuve());
+        assertEquals(0.0, resultat.getEcart());
+
+        Reseau reseau = ReseauFactory.parserReseau(10, "./tests/resources/instance1.txt");
+        resultat = new Optimiseur(parametresHeuristiques(), 1L).resoudre(reseau);
+        assertTrue(resultat.getBorneInferieure() <= resultat.getCout());
+        assertEquals(0.6984, resultat.getCout(), 1e-3);
+
+        assertThrows(IllegalArgumentException.class, () -> parametresSilencieux().setEcartTolere(-1));
+    }
+
+    /*
+     * La trace du recuit est absente par défaut ; activée, elle garde les entrées les plus
+     * récentes dans sa capacité et ne change pas le résultat à graine égale.
+     */
+    @Test
+    void testTraceRecuit() throws Exception {
+        Reseau r1 = ReseauFactory.parserReseau(10, "./tests/resources/instance7.txt");
+        Reseau r2 = ReseauFactory.parserReseau(10, "./tests/resources/instance7.txt");
+        Optimiseur sansTrace = new Optimiseur(parametresHeuristiques(), 5L);
+        assertNull(sansTrace.getTrace());
+
+        ParametresOptimisation parametres = parametresHeuristiques();
+        parametres.setTailleTrace(16);
+        Optimiseur avecTrace = new Optimiseur(parametres, 5L);
+        assertEquals(sansTrace.optimiser(r1), avecTrace.optimiser(r2));
+
+        TraceRecuit trace = avecTrace.getTrace();
+        assertEquals(16, trace.capacite());
+        assertEquals(16, trace.taille());
+        assertTrue(trace.nombreEcrasees() > 0);
+
+        StringWriter csv = new StringWriter();
+        trace.ecrireCsv(csv);
+        String[] lignes = csv.toString().split("\n");
+        assertEquals("recuit,iteration,evenement,temperature,cout_courant,meilleur_cout,taux_acceptation", lignes[0]);
+        assertEquals(17, lignes.length);
+
+        assertThrows(IllegalArgumentException.class, () -> parametres.setTailleTrace(-1));
+    }
+
+    /*
+     * Réseau aléatoire propice aux égalités de score (capacités et charges répétées) et aux
+     * surcharges (maisons concentrées sur les premiers générateurs, certaines non connectées).
+     */
+    private static Reseau reseauAleatoire(SplittableRandom tirages) {
+        Reseau reseau = new Reseau(10);
+        int nbGenerateurs = 1 + tirages.nextInt(25);
+        for (int g = 0; g < nbGenerateurs; g++) {
+            reseau.addGenerateur("g" + g, 40 + 20 * tirages.nextInt(4));
+        }
+        Consommation[] classes = Consommation.values();
+        for (int m = 0; ; m++) {
+            Consommation c = classes[tirages.nextInt(classes.length)];
+            if (reseau.getCharge() + c.getConsommation() > reseau.getCapacite()) break;
+            Maison maison = new Maison("m" + m, c);
+            reseau.addMaison(maison);
+            if (tirages.nextInt(10) > 0) {
+                reseau.addConnexion(maison, reseau.getGenerateurs().get(tirages.nextInt(1 + tirages.nextInt(nbGenerateurs))));
+            }
+        }
+        return reseau;
+    }
+
+    /*
+     * La construction gloutonne par arbre des scores donne la même affectation que le
+     * parcours linéaire de tous les générateurs pour chaque maison, égalités et
+     * générateurs saturés compris.
+     */
+    @Test
+    void testGloutonCommeParcoursLineaire() {
+        SplittableRandom tirages = new SplittableRandom(909);
+        Optimiseur optimiseur = new Optimiseur(parametresSilencieux(), 1L);
+        Consommation[] classes = Consommation.values();
+        for (int essai = 0; essai < 200; essai++) {
+            // capacités variées et demande proche de l'offre, pour saturer des générateurs
+            Reseau reseau = new Reseau(10);
+            int nbGenerateurs = 1 + tirages.nextInt(25);
+            for (int g = 0; g < nbGenerateurs; g++) {
+                reseau.addGenerateur("g" + g, 10 * (1 + tirages.nextInt(10)));
+            }
+            for (int m = 0; ; m++) {
+                Consommation c = classes[tirages.nextInt(classes.length)];
+                if (reseau.getCharge() + c.getConsommation() > reseau.getCapacite()) break;
+                reseau.addMaison(new Maison("m" + m, c));
+            }
+            NoyauReseau noyau = NoyauReseau.depuis(reseau);
+            int nbMaisons = noyau.nombreMaisons();
+
+            Integer[] ordre = new Integer[nbMaisons];
+            for (int m = 0; m < nbMaisons; m++) ordre[m] = m;
+            Arrays.sort(ordre, (a, b) -> Integer.compare(noyau.consommation(b), noyau.consommation(a)));
+            int[] charge = new int[nbGenerateurs];
+            int[] attendu = new int[nbMaisons];
+            for (int m : ordre) {
+                int meilleur = -1;
+                double meilleurScore = Double.NEGATIVE_INFINITY;
+                for (int g = 0; g < nbGenerateurs; g++) {
+                    double capaciteRestante = noyau.capacite(g) - charge[g];
+                    double score = capaciteRestante * (1.0 - (double) charge[g] / noyau.capacite(g));
+                    if (capaciteRestante < noyau.consommation(m)) score -= 100000.0;
+                    if (score > meilleurScore) {
+                        meilleurScore = score;
+                        meilleur = g;
+                    }
+                }
+                attendu[m] = meilleur;
+                charge[meilleur] += noyau.consommation(m);
+            }
+
+            assertTrue(optimiseur.construireSolutionInitiale(noyau, new JetonAnnulation()));
+            assertArrayEquals(attendu, noyau.copierAffectation());
+        }
+    }
+
+    /*
+     * Une construction interrompue garde les maisons déjà placées et rend aux autres leur
+     * générateur d'origine ; l'affectation d'origine n'est reprise que si elle coûte moins
+     * en connectant autant de maisons.
+     */
+    @Test
+    void testConstructionInterrompueCompleteeParLOrigine() {
+        SplittableRandom tirages = new SplittableRandom(31);
+        Optimiseur optimiseur = new Optimiseur(parametresSilencieux(), 1L);
+        int completees = 0;
+        int origines = 0;
+        for (int essai = 0; essai < 200; essai++) {
+            NoyauReseau noyau = NoyauReseau.depuis(reseauAleatoire(tirages));
+            int nbMaisons = noyau.nombreMaisons();
+            int[] origine = noyau.copierAffectation();
+            double coutOrigine = noyau.cout();
+
+            // affectation partielle : une maison sur deux placée au hasard
+            int[] partielle = new int[nbMaisons];
+            for (int m = 0; m < nbMaisons; m++) {
+                partielle[m] = tirages.nextBoolean() ? tirages.nextInt(noyau.nombreGenerateurs()) : -1;
+            }
+            noyau.restaurerAffectation(partielle);
+            optimiseur.completerConstructionInterrompue(origine, noyau);
+
+            int[] resultat = noyau.copierAffectation();
+            if (Arrays.equals(origine, resultat)) {
+                origines++;
+                continue;
+            }
+            completees++;
+            int connectees = 0;
+            int connecteesOrigine = 0;
+            for (int m = 0; m < nbMaisons; m++) {
+                assertEquals(partielle[m] >= 0 ? partielle[m] : origine[m], resultat[m]);
+                if (resultat[m] >= 0) connectees++;
+                if (origine[m] >= 0) connecteesOrigine++;
+            }
+            assertTrue(connectees > connecteesOrigine || noyau.cout() <= coutOrigine);
+        }
+        assertTrue(completees > 0);
+        assertTrue(origines > 0);
+    }
+
+    /*
+     * Le parcours de l'arbre des taux retient les mêmes 3 générateurs, dans le même ordre,
+     * qu'un tri complet des scores (score décroissant, puis indice croissant), égalités et
+     * générateurs pénalisés compris.
+     */
+    @Test
+    void testMeilleursGenerateursCommeTriComplet() {
+        SplittableRandom tirages = new SplittableRandom(2024);
+        Optimiseur optimiseur = new Optimiseur(parametresSilencieux(), 1L);
+        int egalites = 0;
+        int penalises = 0;
+        for (int essai = 0; essai < 200; essai++) {
+            NoyauReseau noyau = NoyauReseau.depuis(reseauAleatoire(tirages));
+            int nbGenerateurs = noyau.nombreGenerateurs();
+            for (int k = 0; k < 20 && noyau.nombreMaisons() > 0; k++) {
+                int m = tirages.nextInt(noyau.nombreMaisons());
+                double tauxMoyen = noyau.tauxMoyen();
+                double[] score = new double[nbGenerateurs];
+                Integer[] tri = new Integer[nbGenerateurs];
+                for (int g = 0; g < nbGenerateurs; g++) {
+                    double taux = noyau.taux(g);
+                    score[g] = -Math.abs(taux - tauxMoyen) + (taux < tauxMoyen ? 0.5 : 0.0);
+                    if (noyau.charge(g) + noyau.consommation(m) > noyau.capacite(g)) {
+                        score[g] -= 10.0;
+                        penalises++;
+                    }
+                    tri[g] = g;
+                }
+                Arrays.sort(tri, (a, b) -> score[a] != score[b] ? Double.compare(score[b], score[a]) : Integer.compare(a, b));
+
+                int[] attendu = {-1, -1, -1};
+                for (int rang = 0; rang < Math.min(3, nbGenerateurs); rang++) {
+                    attendu[rang] = tri[rang];
+                }
+                if (nbGenerateurs > 3 && score[tri[2]] == score[tri[3]]) egalites++;
+                assertArrayEquals(attendu, optimiseur.retenirMeilleursGenerateurs(m, noyau));
+
+                // déplacement aléatoire pour varier les taux entre deux requêtes
+                noyau.changeConnexion(m, tirages.nextInt(nbGenerateurs));
+            }
+        }
+        assertTrue(egalites > 0, "aucune égalité au 3e rang");
+        assertTrue(penalises > 0, "aucun générateur pénalisé");
+    }
+
+    /*
+     * La descente pilotée par la file s'arrête sur un optimum local des déplacements simples,
+     * sauf si elle a épuisé ses maxIterationsDescente × |M| examens, limite toujours respectée.
+     */
+    @Test
+    void testDescenteLocaleAtteintUnOptimumLocal() {
+        SplittableRandom tirages = new SplittableRandom(77);
+        ParametresOptimisation parametres = parametresSilencieux();
+        parametres.setMaxIterationsDescente(1000);
+        ParametresOptimisation limites = parametresSilencieux();
+        limites.setMaxIterationsDescente(1);
+        int optimumsLocaux = 0;
+        int limitesAtteintes = 0;
+        for (int essai = 0; essai < 100; essai++) {
+            Reseau reseau = reseauAleatoire(tirages);
+            NoyauReseau noyau = NoyauReseau.depuis(reseau);
+            int nbMaisons = noyau.nombreMaisons();
+
+            long examens = new Optimiseur(parametres, essai).descenteLocale(noyau, new JetonAnnulation());
+            assertTrue(examens <= 1000L * nbMaisons);
+            if (examens < 1000L * nbMaisons) {
+                optimumsLocaux++;
+                for (int m = 0; m < nbMaisons; m++) {
+                    if (noyau.generateur(m) < 0) continue;
+                    for (int g = 0; g < noyau.nombreGenerateurs(); g++) {
+                        if (g == noyau.generateur(m)) continue;
+                        assertTrue(noyau.deltaDeplacement(m, g) >= 0, "déplacement améliorant restant");
+                    }
+                }
+            }
+
+            NoyauReseau limite = NoyauReseau.depuis(reseau);
+            examens = new Optimiseur(limites, essai).descenteLocale(limite, new JetonAnnulation());
+            assertTrue(examens <= nbMaisons);
+            if (examens == nbMaisons && nbMaisons > 0) limitesAtteintes++;
+        }
+        assertTrue(optimumsLocaux > 0);
+        assertTrue(limitesAtteintes > 0);
+
+        ParametresOptimisation sansDescente = parametresSilencieux();
+        sansDescente.setMaxIterationsDescente(0);
+        NoyauReseau noyau = NoyauReseau.depuis(reseauAleatoire(tirages));
+        int[] avant = noyau.copierAffectation();
+        assertEquals(0, new Optimiseur(sansDescente, 1L).descenteLocale(noyau, new JetonAnnulation()));
+        assertArrayEquals(avant, noyau.copierAffectation());
+    }
+}
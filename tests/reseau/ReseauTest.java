@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvFileSource;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /*
@@ -169,6 +173,402 @@ class ReseauTest {
         assertEquals(surchargeAttendue, reseau.getSurcharge(), 0.001);
     }
 
+    /*
+     * Teste que le coût, la dispersion et la surcharge sont exactement ceux de la somme
+     * séquentielle sur les générateurs, dans leur ordre d'ajout.
+     */
+    @Test
+    void testCalculCoutSequentiel() {
+        SplittableRandom tirages = new SplittableRandom(11);
+        Consommation[] classes = Consommation.values();
+        for (int essai = 0; essai < 200; essai++) {
+            Reseau reseau = new Reseau(10);
+            int nbGenerateurs = 1 + tirages.nextInt(40);
+            for (int g = 0; g < nbGenerateurs; g++) {
+                reseau.addGenerateur("g" + g, 10 + 10 * tirages.nextInt(30));
+            }
+            for (int m = 0; m < 300; m++) {
+                Consommation c = classes[tirages.nextInt(classes.length)];
+                if (reseau.getCharge() + c.getConsommation() > reseau.getCapacite()) break;
+                Maison maison = new Maison("m" + m, c);
+                reseau.addMaison(maison);
+                reseau.addConnexion(maison, reseau.getGenerateurs().get(tirages.nextInt(nbGenerateurs)));
+            }
+            reseau.calculCout();
+
+            double moyenne = 0;
+            for (Generateur g : reseau.getGenerateurs()) moyenne += g.calculTauxUtilisation();
+            moyenne = moyenne / nbGenerateurs;
+            double disp = 0;
+            double surcharge = 0;
+            for (Generateur g : reseau.getGenerateurs()) {
+                double taux = g.calculTauxUtilisation();
+                disp += Math.abs(moyenne - taux);
+                if (taux > 1) surcharge += taux - 1;
+            }
+            assertEquals(disp, reseau.getDisp());
+            assertEquals(surcharge, reseau.getSurcharge());
+            assertEquals(disp + 10 * surcharge, reseau.getCout());
+        }
+    }
+
+    /*
+     * Teste que la construction en bloc donne le même réseau que les ajouts successifs :
+     * mêmes index, même coût et mêmes évaluations de mouvements, bit à bit.
+     */
+    @Test
+    void testConstructionEnBloc() {
+        SplittableRandom tirages = new SplittableRandom(5);
+        Consommation[] classes = Consommation.values();
+        for (int essai = 0; essai < 100; essai++) {
+            int nbGenerateurs = 1 + tirages.nextInt(40);
+            List<Generateur> generateurs = new ArrayList<>();
+            List<Maison> maisons = new ArrayList<>();
+            Reseau attendu = new Reseau(10);
+            int capacite = 0;
+            for (int g = 0; g < nbGenerateurs; g++) {
+                int capaciteG = 10 + 10 * tirages.nextInt(30);
+                capacite += capaciteG;
+                generateurs.add(new Generateur("g" + g, capaciteG));
+                attendu.addGenerateur("g" + g, capaciteG);
+            }
+            int charge = 0;
+            for (int m = 0; ; m++) {
+                Consommation c = classes[tirages.nextInt(classes.length)];
+                if (charge + c.getConsommation() > capacite) break;
+                charge += c.getConsommation();
+                maisons.add(new Maison("m" + m, c));
+                attendu.addMaison(new Maison("m" + m, c));
+            }
+            int[] affectation = new int[maisons.size()];
+            for (int m = 0; m < affectation.length; m++) {
+                affectation[m] = tirages.nextInt(nbGenerateurs + 1) - 1;
+            }
+            attendu.restaurerInstantane(affectation);
+
+            Reseau reseau = Reseau.construire(10, generateurs, maisons, affectation);
+            assertArrayEquals(affectation, reseau.getInstantane());
+            assertEquals(attendu.getCout(), reseau.getCout());
+            assertEquals(attendu.getCharge(), reseau.getCharge());
+            assertSame(generateurs.get(0), reseau.getGenerateur("g0"));
+            for (int k = 0; k < 20 && !maisons.isEmpty(); k++) {
+                int m = tirages.nextInt(maisons.size());
+                int g = tirages.nextInt(nbGenerateurs);
+                if (affectation[m] < 0) continue;
+                assertEquals(attendu.deltaDeplacement(attendu.getMaisonsParId().get(m),
+                                attendu.getGenerateurs().get(affectation[m]), attendu.getGenerateurs().get(g)),
+                        reseau.deltaDeplacement(maisons.get(m), generateurs.get(affectation[m]), generateurs.get(g)));
+            }
+        }
+
+        List<Generateur> generateurs = List.of(new Generateur("g", 20));
+        Maison m1 = new Maison("m1", Consommation.BASSE);
+        assertThrows(IllegalArgumentException.class,
+                () -> Reseau.construire(10, generateurs, List.of(m1, m1), new int[] {0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> Reseau.construire(10, generateurs, List.of(m1), new int[] {1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> Reseau.construire(10, generateurs, List.of(m1), new int[0]));
+        assertThrows(IllegalStateException.class, () -> Reseau.construire(10, generateurs,
+                List.of(m1, new Maison("m2", Consommation.FORTE)), new int[] {-1, -1}));
+    }
+
+    /*
+     * Teste que l'évaluation d'un déplacement ou d'un échange ne modifie pas le réseau
+     * et donne, aux arrondis près, la variation obtenue en appliquant le mouvement.
+     */
+    @Test
+    void testDeltaDeplacementEtSwap() throws Exception {
+        Reseau reseau = creerReseauInitial();
+        Maison m1 = reseau.getMaison("m1");
+        Maison m3 = reseau.getMaison("m3");
+        Generateur g1 = reseau.getGenerateur("g1");
+        Generateur g2 = reseau.getGenerateur("g2");
+        reseau.addConnexion(m1, g1);
+        reseau.addConnexion(reseau.getMaison("m2"), g1);
+        reseau.addConnexion(m3, g2);
+        reseau.calculCout();
+        double coutAvant = reseau.getCout();
+
+        double deltaDeplacement = reseau.deltaDeplacement(m1, g1, g2);
+        assertEquals(g1, reseau.getConnexions().get(m1));
+        assertEquals(30, g1.getChargeActuelle());
+        reseau.changeConnexion(m1, g1, g2);
+        reseau.calculCout();
+        assertEquals(reseau.getCout() - coutAvant, deltaDeplacement, 1e-12);
+
+        reseau.changeConnexion(m1, g2, g1);
+        reseau.calculCout();
+        double deltaSwap = reseau.deltaSwap(m1, m3);
+        assertEquals(g2, reseau.getConnexions().get(m3));
+        reseau.changeConnexion(m1, g1, g2);
+        reseau.changeConnexion(m3, g2, g1);
+        reseau.calculCout();
+        assertEquals(reseau.getCout() - coutAvant, deltaSwap, 1e-12);
+        assertEquals(0.0, reseau.deltaSwap(m1, m1));
+    }
+
+    /*
+     * Teste que l'évaluation d'un mouvement refuse une maison absente du générateur source,
+     * une maison non connectée et un générateur étranger au réseau.
+     */
+    @Test
+    void testDeltaArgumentsInvalides() throws Exception {
+        Reseau reseau = creerReseauInitial();
+        Maison m1 = reseau.getMaison("m1");
+        Maison m2 = reseau.getMaison("m2");
+        Generateur g1 = reseau.getGenerateur("g1");
+        Generateur g2 = reseau.getGenerateur("g2");
+        reseau.addConnexion(m1, g1);
+
+        assertThrows(IllegalArgumentException.class, () -> reseau.deltaDeplacement(m1, g2, g1));
+        assertThrows(IllegalArgumentException.class, () -> reseau.deltaDeplacement(m2, g1, g2));
+        assertThrows(IllegalArgumentException.class,
+                () -> reseau.deltaDeplacement(m1, g1, new Generateur("etranger", 10)));
+        assertThrows(IllegalArgumentException.class, () -> reseau.deltaSwap(m1, m2));
+        assertThrows(IllegalArgumentException.class, () -> reseau.deltaSwap(m2, m1));
+    }
+
+    /*
+     * Teste que l'index inverse générateur → maisons suit les ajouts, changements et suppressions de connexions.
+     */
+    @Test
+    void testMaisonsParGenerateur() throws Exception {
+        Reseau reseau = creerReseauInitial();
+        Maison m1 = reseau.getMaison("m1");
+        Maison m2 = reseau.getMaison("m2");
+        Maison m3 = reseau.getMaison("m3");
+        Generateur g1 = reseau.getGenerateur("g1");
+        Generateur g2 = reseau.getGenerateur("g2");
+
+        reseau.addConnexion(m1, g1);
+        reseau.addConnexion(m2, g1);
+        reseau.addConnexion(m3, g1);
+        assertEquals(3, reseau.getNombreMaisons(g1));
+        assertTrue(reseau.getMaisons(g1).contains(m2));
+
+        reseau.changeConnexion(m1, g1, g2);
+        reseau.supprConnexion(m3, g1);
+        assertEquals(1, reseau.getNombreMaisons(g1));
+        assertTrue(reseau.getMaisons(g1).contains(m2));
+        assertEquals(1, reseau.getNombreMaisons(g2));
+        assertTrue(reseau.getMaisons(g2).contains(m1));
+        assertFalse(reseau.getMaisons(g1).contains(m3));
+        assertFalse(reseau.getMaisons(g2).contains(m3));
+    }
+
+    /*
+     * Teste qu'une transaction annulée rétablit les connexions, les charges et les indicateurs
+     * de coût, et qu'une transaction validée conserve les changements.
+     */
+    @Test
+    void testTransactionAnnuleeEtValidee() throws Exception {
+        Reseau reseau = creerReseauInitial();
+        Maison m1 = reseau.getMaison("m1");
+        Maison m2 = reseau.getMaison("m2");
+        Maison m3 = reseau.getMaison("m3");
+        Generateur g1 = reseau.getGenerateur("g1");
+        Generateur g2 = reseau.getGenerateur("g2");
+        reseau.addConnexion(m1, g1);
+        reseau.addConnexion(m2, g1);
+        reseau.calculCout();
+        double coutAvant = reseau.getCout();
+
+        reseau.debutTransaction();
+        reseau.changeConnexion(m1, g1, g2);
+        reseau.changeConnexion(m1, g2, g1);
+        reseau.changeConnexion(m2, g1, g2);
+        reseau.addConnexion(m3, g2);
+        reseau.calculCout();
+        assertThrows(IllegalStateException.class, () -> reseau.addGenerateur("g3", 10));
+        reseau.annulerTransaction();
+
+        assertEquals(g1, reseau.getConnexions().get(m1));
+        assertEquals(g1, reseau.getConnexions().get(m2));
+        assertNull(reseau.getConnexions().get(m3));
+        assertEquals(30, g1.getChargeActuelle());
+        assertEquals(0, g2.getChargeActuelle());
+        assertEquals(coutAvant, reseau.getCout());
+        reseau.calculCout();
+        assertEquals(coutAvant, reseau.getCout(), 1e-12);
+
+        reseau.debutTransaction();
+        reseau.changeConnexion(m1, g1, g2);
+        reseau.validerTransaction();
+        assertEquals(g2, reseau.getConnexions().get(m1));
+        assertThrows(IllegalStateException.class, reseau::annulerTransaction);
+    }
+
+    /*
+     * Teste qu'une transaction annulée après des restaurations d'instantanés rend
+     * l'instantané, l'index inverse et l'index des taux d'origine, et qu'un instantané
+     * lu pendant la transaction reflète bien les changements en cours.
+     */
+    @Test
+    void testTransactionEtInstantanesEntrelaces() {
+        SplittableRandom tirages = new SplittableRandom(17);
+        for (int essai = 0; essai < 50; essai++) {
+            Reseau reseau = new Reseau(10);
+            int nbGenerateurs = 2 + tirages.nextInt(10);
+            for (int g = 0; g < nbGenerateurs; g++) {
+                reseau.addGenerateur("g" + g, 40 + 20 * tirages.nextInt(4));
+            }
+            for (int m = 0; reseau.getCharge() + 40 <= reseau.getCapacite(); m++) {
+                Maison maison = new Maison("m" + m, Consommation.values()[tirages.nextInt(3)]);
+                reseau.addMaison(maison);
+                reseau.addConnexion(maison, reseau.getGenerateurs().get(tirages.nextInt(nbGenerateurs)));
+            }
+            reseau.calculCout();
+            int[] origine = reseau.getInstantane();
+            double coutOrigine = reseau.getCout();
+
+            reseau.debutTransaction();
+            int[] autre = new int[origine.length];
+            for (int m = 0; m < autre.length; m++) autre[m] = tirages.nextInt(nbGenerateurs + 1) - 1;
+            reseau.restaurerInstantane(autre);
+            assertArrayEquals(autre, reseau.getInstantane());
+            Maison m0 = reseau.getMaisonsParId().get(0);
+            Generateur g0 = reseau.getGenerateurs().get(0);
+            if (reseau.getConnexions().get(m0) == null) {
+                reseau.addConnexion(m0, g0);
+            } else {
+                reseau.supprConnexion(m0, reseau.getConnexions().get(m0));
+            }
+            reseau.annulerTransaction();
+
+            assertArrayEquals(origine, reseau.getInstantane());
+            assertEquals(coutOrigine, reseau.getCout());
+            List<Generateur> copiesGenerateurs = new ArrayList<>();
+            for (int g = 0; g < nbGenerateurs; g++) {
+                Generateur generateur = reseau.getGenerateurs().get(g);
+                copiesGenerateurs.add(new Generateur(generateur.getNom(), generateur.getCapacite()));
+                int charge = 0;
+                for (Maison maison : reseau.getMaisons(generateur)) {
+                    assertSame(generateur, reseau.getConnexions().get(maison));
+                    charge += maison.getConsommation();
+                }
+                assertEquals(charge, generateur.getChargeActuelle());
+            }
+            List<Maison> copiesMaisons = new ArrayList<>();
+            for (Maison maison : reseau.getMaisonsParId()) {
+                copiesMaisons.add(new Maison(maison.getNom(), classe(maison)));
+            }
+            Reseau reference = Reseau.construire(10, copiesGenerateurs, copiesMaisons, origine);
+            int m = tirages.nextInt(origine.length);
+            int cible = tirages.nextInt(nbGenerateurs);
+            assertEquals(reference.deltaDeplacement(copiesMaisons.get(m), copiesGenerateurs.get(origine[m]),
+                            copiesGenerateurs.get(cible)),
+                    reseau.deltaDeplacement(reseau.getMaisonsParId().get(m), reseau.getGenerateurs().get(origine[m]),
+                            reseau.getGenerateurs().get(cible)));
+        }
+    }
+
+    private static Consommation classe(Maison maison) {
+        for (Consommation c : Consommation.values()) {
+            if (c.getConsommation() == maison.getConsommation()) return c;
+        }
+        throw new IllegalArgumentException(maison.getNom());
+    }
+
+    /*
+     * Teste qu'un instantané compact rétablit les connexions et le coût, en entier ou pour
+     * une liste de maisons modifiées, et qu'un instantané d'une autre taille est refusé.
+     */
+    @Test
+    void testInstantane() throws Exception {
+        Reseau reseau = creerReseauInitial();
+        Maison m1 = reseau.getMaison("m1");
+        Maison m2 = reseau.getMaison("m2");
+        Generateur g1 = reseau.getGenerateur("g1");
+        Generateur g2 = reseau.getGenerateur("g2");
+        reseau.addConnexion(m1, g1);
+        reseau.addConnexion(m2, g2);
+        reseau.calculCout();
+        double coutAvant = reseau.getCout();
+        int[] instantane = reseau.getInstantane();
+
+        reseau.changeConnexion(m1, g1, g2);
+        reseau.supprConnexion(m2, g2);
+        reseau.addConnexion(reseau.getMaison("m3"), g1);
+        reseau.restaurerInstantane(instantane);
+
+        assertEquals(g1, reseau.getConnexions().get(m1));
+        assertEquals(g2, reseau.getConnexions().get(m2));
+        assertNull(reseau.getConnexions().get(reseau.getMaison("m3")));
+        assertEquals(coutAvant, reseau.getCout(), 1e-12);
+        assertArrayEquals(instantane, reseau.getInstantane());
+        assertThrows(IllegalArgumentException.class, () -> reseau.restaurerInstantane(new int[1]));
+
+        // restauration par différence : seules les maisons listées sont examinées
+        reseau.changeConnexion(m1, g1, g2);
+        reseau.supprConnexion(m2, g2);
+        int[] modifiees = {reseau.idMaison(m2), reseau.idMaison(m1)};
+        reseau.restaurerInstantane(instantane, modifiees, 2);
+        assertArrayEquals(instantane, reseau.getInstantane());
+        assertEquals(coutAvant, reseau.getCout(), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> reseau.restaurerInstantane(instantane, new int[]{3}, 1));
+    }
+
+    /*
+     * Teste que les identifiants denses suivent l'ordre d'ajout, et que -1 désigne une
+     * maison ou un générateur étranger au réseau.
+     */
+    @Test
+    void testIdentifiantsDenses() throws Exception {
+        Reseau reseau = creerReseauInitial();
+        Generateur g3 = new Generateur("g3", 80);
+        reseau.addGenerateur(g3);
+        Maison m4 = new Maison("m4", Consommation.BASSE);
+        reseau.addMaison(m4);
+
+        for (int g = 0; g < reseau.getGenerateurs().size(); g++) {
+            assertEquals(g, reseau.idGenerateur(reseau.getGenerateurs().get(g)));
+        }
+        assertEquals(2, reseau.idGenerateur(g3));
+        assertEquals(0, reseau.idMaison(reseau.getMaison("m1")));
+        assertEquals(1, reseau.idMaison(reseau.getMaison("m2")));
+        assertEquals(2, reseau.idMaison(reseau.getMaison("m3")));
+        assertEquals(3, reseau.idMaison(m4));
+        assertEquals(m4, reseau.getMaisonsParId().get(3));
+
+        // reconnecter une maison ne change pas son identifiant
+        reseau.addConnexion(m4, g3);
+        reseau.supprConnexion(m4, g3);
+        assertEquals(3, reseau.idMaison(m4));
+
+        assertEquals(-1, reseau.idGenerateur(new Generateur("g1", 100)));
+        assertEquals(-1, reseau.idMaison(new Maison("m1", Consommation.NORMAL)));
+    }
+
+    /*
+     * Teste qu'à nom égal, la recherche par nom renvoie la première maison ou le premier
+     * générateur ajouté, chacun gardant son propre identifiant dense.
+     */
+    @Test
+    void testNomDuplique() throws Exception {
+        Reseau reseau = creerReseauInitial();
+        Generateur premierG1 = reseau.getGenerateur("g1");
+        Maison premiereM1 = reseau.getMaison("m1");
+        Generateur autreG1 = new Generateur("g1", 60);
+        Maison autreM1 = new Maison("m1", Consommation.FORTE);
+        reseau.addGenerateur(autreG1);
+        reseau.addMaison(autreM1);
+
+        assertSame(premierG1, reseau.getGenerateur("g1"));
+        assertSame(premiereM1, reseau.getMaison("m1"));
+        assertEquals(0, reseau.idGenerateur(premierG1));
+        assertEquals(2, reseau.idGenerateur(autreG1));
+        assertEquals(0, reseau.idMaison(premiereM1));
+        assertEquals(3, reseau.idMaison(autreM1));
+        assertEquals(3, reseau.getGenerateurs().size());
+        assertEquals(4, reseau.getMaisonsParId().size());
+
+        // les connexions par nom visent la première entité enregistrée
+        reseau.addConnexion("m1", "g1");
+        assertSame(premierG1, reseau.getConnexions().get(premiereM1));
+        assertNull(reseau.getConnexions().get(autreM1));
+    }
+
     /*
      * Ce test vérifie que la création d'un générateur avec une capacité négative
      * lève bien une exception de type IllegalArgumentException.